@@ -2,8 +2,10 @@ package com.mindgraph;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class MindGraphApplication {
     public static void main(String[] args) {
         SpringApplication.run(MindGraphApplication.class, args);
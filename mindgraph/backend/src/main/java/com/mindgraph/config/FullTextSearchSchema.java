@@ -0,0 +1,58 @@
+package com.mindgraph.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Search columns that Hibernate's ddl-auto cannot express: a stored tsvector generated from the
+// text columns, kept current by Postgres on every insert and update, and a GIN index on it.
+// Runs after the EntityManagerFactory so the tables exist; every statement is idempotent.
+// The same DDL is in database/schema.sql.
+@Component
+@DependsOn("entityManagerFactory")
+public class FullTextSearchSchema {
+
+    private static final Logger logger = LoggerFactory.getLogger(FullTextSearchSchema.class);
+
+    // 'simple' does no stemming or stop-word removal: titles are short, often not English, and
+    // prefix matching covers most of what stemming would
+    private static final String[] DDL = {
+            "ALTER TABLE tasks ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (" +
+            "setweight(to_tsvector('simple', coalesce(title, '')), 'A') || " +
+            "setweight(to_tsvector('simple', coalesce(description, '')), 'B')) STORED",
+            "CREATE INDEX IF NOT EXISTS idx_tasks_search_vector ON tasks USING GIN (search_vector)",
+            "ALTER TABLE events ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (" +
+            "setweight(to_tsvector('simple', coalesce(title, '')), 'A') || " +
+            "setweight(to_tsvector('simple', coalesce(location, '')), 'B') || " +
+            "setweight(to_tsvector('simple', coalesce(description, '')), 'C')) STORED",
+            "CREATE INDEX IF NOT EXISTS idx_events_search_vector ON events USING GIN (search_vector)"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${search.schema.auto-create:true}")
+    private boolean autoCreate;
+
+    public FullTextSearchSchema(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void createSearchColumns() {
+        if (!autoCreate) {
+            return;
+        }
+        for (String statement : DDL) {
+            try {
+                jdbcTemplate.execute(statement);
+            } catch (RuntimeException e) {
+                // Search then fails per request instead of the whole application failing to start
+                logger.error("Could not apply search schema statement: {}", statement, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.mindgraph.config;
+
+import io.netty.channel.ChannelOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.net.URI;
+import java.time.Duration;
+
+// HTTP transport for GeminiService: a named, bounded connection pool (its active/idle/pending
+// gauges are published through Micrometer as reactor.netty.connection.provider.*), connect and
+// response timeouts, HTTP/2 with HTTP/1.1 fallback, response compression, and connections
+// opened eagerly at startup so the first chat requests do not pay for the TLS handshake.
+@Configuration
+public class GeminiClientConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeminiClientConfig.class);
+
+    @Value("${gemini.api.url}")
+    private String apiUrl;
+
+    @Value("${gemini.http.pool-name:gemini}")
+    private String poolName;
+
+    @Value("${gemini.http.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${gemini.http.pending-acquire-max-count:200}")
+    private int pendingAcquireMaxCount;
+
+    @Value("${gemini.http.pending-acquire-timeout:5s}")
+    private Duration pendingAcquireTimeout;
+
+    @Value("${gemini.http.max-idle-time:60s}")
+    private Duration maxIdleTime;
+
+    @Value("${gemini.http.max-life-time:10m}")
+    private Duration maxLifeTime;
+
+    @Value("${gemini.http.connect-timeout:5s}")
+    private Duration connectTimeout;
+
+    @Value("${gemini.http.response-timeout:30s}")
+    private Duration responseTimeout;
+
+    @Value("${gemini.http.http2:true}")
+    private boolean http2;
+
+    @Value("${gemini.http.compression:true}")
+    private boolean compression;
+
+    @Value("${gemini.http.warmup-connections:2}")
+    private int warmupConnections;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider geminiConnectionProvider() {
+        return ConnectionProvider.builder(poolName)
+                .maxConnections(maxConnections)
+                // Bounded queue: beyond this, callers fail fast instead of piling up
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(Duration.ofSeconds(30))
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public HttpClient geminiHttpClient(ConnectionProvider geminiConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(geminiConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(responseTimeout)
+                .compress(compression);
+
+        if (http2) {
+            // H2 needs TLS with ALPN; the Gemini endpoint is always https
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11).secure();
+        }
+        return httpClient;
+    }
+
+    @Bean
+    public WebClient geminiWebClient(HttpClient geminiHttpClient) {
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(geminiHttpClient))
+                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp(ApplicationReadyEvent event) {
+        HttpClient httpClient = event.getApplicationContext().getBean("geminiHttpClient", HttpClient.class);
+
+        // Loads the event loop, DNS resolver and SSL context up front
+        httpClient.warmup().block();
+
+        if (warmupConnections <= 0) {
+            return;
+        }
+        URI uri = URI.create(apiUrl);
+        String origin = uri.getScheme() + "://" + uri.getAuthority() + "/";
+
+        // Any response will do: the point is to leave TLS connections idle in the pool
+        Flux.range(0, warmupConnections)
+                .flatMap(i -> httpClient.head().uri(origin).response().then())
+                .doOnComplete(() -> logger.info("Pre-opened {} Gemini connection(s)", warmupConnections))
+                .doOnError(e -> logger.warn("Gemini connection warm-up failed: {}", e.getMessage()))
+                .onErrorComplete()
+                .subscribe();
+    }
+}
@@ -1,18 +1,30 @@
 package com.mindgraph.controller;
 
+import com.mindgraph.dto.ChatHistoryEntryDTO;
 import com.mindgraph.dto.ChatRequestDTO;
 import com.mindgraph.dto.ChatResponseDTO;
+import com.mindgraph.dto.CursorPageDTO;
 import com.mindgraph.entity.User;
+import com.mindgraph.repository.ChatbotConversationRepository;
 import com.mindgraph.repository.UserRepository;
 import com.mindgraph.service.IntelligentChatbotService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/chatbot")
@@ -27,10 +39,15 @@ public class ChatbotController {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private ChatbotConversationRepository conversationRepository;
+    
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+    
     @PostMapping("/message")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<ChatResponseDTO> sendMessage(@Valid @RequestBody ChatRequestDTO request, 
-                                                      Authentication authentication) {
+    public CompletableFuture<ResponseEntity<ChatResponseDTO>> sendMessage(@Valid @RequestBody ChatRequestDTO request, 
+                                                                          Authentication authentication) {
         try {
             // Enhanced debugging output
             System.out.println("=== CHATBOT REQUEST DEBUG ===");
@@ -49,29 +66,73 @@ public class ChatbotController {
             String sessionId = request.getSessionId() != null ? 
                 request.getSessionId() : generateSessionId(currentUser, request);
             
-            // Use intelligent chatbot service for processing
-            ChatResponseDTO response = intelligentChatbotService.processMessage(
-                request.getMessage(), sessionId, currentUser);
-            
-            // Enhanced debugging output for response
-            System.out.println("=== CHATBOT RESPONSE DEBUG ===");
-            System.out.println("Generated response: " + response.getResponse());
-            System.out.println("Response length: " + response.getResponse().length());
-            System.out.println("===============================");
-            
-            logger.info("Sending chat response");
-            return ResponseEntity.ok(response);
+            // The servlet thread is released here; the response is written when the pipeline completes
+            return intelligentChatbotService.processMessageAsync(request.getMessage(), sessionId, currentUser,
+                            resolveZone(request))
+                    .map(response -> {
+                        // Enhanced debugging output for response
+                        System.out.println("=== CHATBOT RESPONSE DEBUG ===");
+                        System.out.println("Generated response: " + response.getResponse());
+                        System.out.println("Response length: " + response.getResponse().length());
+                        System.out.println("===============================");
+                        
+                        logger.info("Sending chat response");
+                        return ResponseEntity.ok(response);
+                    })
+                    .onErrorResume(e -> Mono.just(errorResponse(e)))
+                    .toFuture();
             
         } catch (Exception e) {
-            logger.error("Error processing chat message", e);
-            
-            ChatResponseDTO errorResponse = new ChatResponseDTO();
-            errorResponse.setResponse("I'm sorry, I encountered an error while processing your message. Please try again.");
-            errorResponse.setStatus("error");
-            errorResponse.setError(e.getMessage());
-            
-            return ResponseEntity.internalServerError().body(errorResponse);
+            return CompletableFuture.completedFuture(errorResponse(e));
+        }
+    }
+    
+    @PostMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('USER')")
+    public Flux<ServerSentEvent<String>> streamMessage(@Valid @RequestBody ChatRequestDTO request,
+                                                       Authentication authentication) {
+        logger.info("Received streaming chat message: {}", request.getMessage());
+        
+        User currentUser = getCurrentUser(authentication);
+        String sessionId = request.getSessionId() != null ? 
+            request.getSessionId() : generateSessionId(currentUser, request);
+        
+        // Each reply fragment is pushed as a "token" event; "done" tells the client the reply is complete
+        return intelligentChatbotService.streamMessage(request.getMessage(), sessionId, currentUser, resolveZone(request))
+                .map(fragment -> ServerSentEvent.builder(fragment).event("token").build())
+                .concatWith(Flux.just(ServerSentEvent.builder(sessionId).event("done").build()));
+    }
+    
+    // Persisted chat turns, newest first. Pass the returned nextCursor as "before" for older turns.
+    @GetMapping("/history")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<CursorPageDTO<ChatHistoryEntryDTO>> getHistory(@RequestParam(required = false) Long before,
+                                                                         @RequestParam(defaultValue = "20") int limit,
+                                                                         Authentication authentication) {
+        User currentUser = getCurrentUser(authentication);
+        int pageSize = Math.max(1, Math.min(limit, MAX_HISTORY_PAGE_SIZE));
+        
+        // One extra row tells whether another page exists without a COUNT query
+        List<ChatHistoryEntryDTO> rows = conversationRepository.findHistoryBefore(currentUser.getId(),
+                before != null ? before : Long.MAX_VALUE, PageRequest.of(0, pageSize + 1));
+        
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = String.valueOf(rows.get(pageSize - 1).getId());
         }
+        return ResponseEntity.ok(new CursorPageDTO<>(rows, nextCursor));
+    }
+    
+    private ResponseEntity<ChatResponseDTO> errorResponse(Throwable e) {
+        logger.error("Error processing chat message", e);
+        
+        ChatResponseDTO errorResponse = new ChatResponseDTO();
+        errorResponse.setResponse("I'm sorry, I encountered an error while processing your message. Please try again.");
+        errorResponse.setStatus("error");
+        errorResponse.setError(e.getMessage());
+        
+        return ResponseEntity.internalServerError().body(errorResponse);
     }
     
     private User getCurrentUser(Authentication authentication) {
@@ -92,10 +153,21 @@ public class ChatbotController {
         }
     }
     
+    private ZoneId resolveZone(ChatRequestDTO request) {
+        if (request.getTimeZone() != null) {
+            try {
+                return ZoneId.of(request.getTimeZone());
+            } catch (Exception e) {
+                logger.warn("Ignoring invalid time zone: {}", request.getTimeZone());
+            }
+        }
+        return ZoneId.systemDefault();
+    }
+    
     private String generateSessionId(User user, ChatRequestDTO request) {
-        // Generate a session ID based on user and timestamp
-        // In a real application, you might want to use a more sophisticated approach
-        return "session_" + user.getId() + "_" + System.currentTimeMillis();
+        // One default session per user: a fresh ID per request would leave an orphaned
+        // conversation context behind on every call without a sessionId
+        return "session_" + user.getId();
     }
     
     @GetMapping("/health")
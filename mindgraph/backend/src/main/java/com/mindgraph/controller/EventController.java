@@ -0,0 +1,179 @@
+package com.mindgraph.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mindgraph.dto.EventDTO;
+import com.mindgraph.entity.User;
+import com.mindgraph.repository.UserRepository;
+import com.mindgraph.service.EventService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.function.Consumer;
+
+@RestController
+@RequestMapping("/events")
+@CrossOrigin(origins = "http://localhost:3000")
+public class EventController {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventController.class);
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // All of the user's events, or those overlapping [start, end) when both are given
+    @GetMapping
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<StreamingResponseBody> getEvents(@RequestParam(required = false) String start,
+                                                           @RequestParam(required = false) String end,
+                                                           Authentication authentication) {
+        if (start != null && end != null) {
+            return getEventsInRange(start, end, authentication);
+        }
+        User currentUser = getCurrentUser(authentication);
+        return streamEvents(consumer -> eventService.forEachEvent(currentUser, consumer));
+    }
+
+    // Calendar view: every event overlapping the window, including multi-day events that began before it
+    @GetMapping("/range")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<StreamingResponseBody> getEventsInRange(@RequestParam String start,
+                                                                  @RequestParam String end,
+                                                                  Authentication authentication) {
+        User currentUser = getCurrentUser(authentication);
+        LocalDateTime rangeStart;
+        LocalDateTime rangeEnd;
+        try {
+            rangeStart = parseDateTime(start);
+            rangeEnd = parseDateTime(end);
+        } catch (DateTimeParseException e) {
+            logger.warn("Rejected event range {} - {}", start, end);
+            return ResponseEntity.badRequest().build();
+        }
+        // Checked here: once streaming has started the status can no longer change
+        if (!rangeEnd.isAfter(rangeStart)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return streamEvents(consumer -> eventService.forEachEventInRange(currentUser, rangeStart, rangeEnd, consumer));
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<EventDTO> getEvent(@PathVariable Long id, Authentication authentication) {
+        User currentUser = getCurrentUser(authentication);
+        return eventService.getEventForUser(id, currentUser)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PostMapping
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<EventDTO> createEvent(@Valid @RequestBody EventDTO request, Authentication authentication) {
+        User currentUser = getCurrentUser(authentication);
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(eventService.createEventForUser(request, currentUser));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected event: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PutMapping("/{id}")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<EventDTO> updateEvent(@PathVariable Long id, @Valid @RequestBody EventDTO request,
+                                                Authentication authentication) {
+        User currentUser = getCurrentUser(authentication);
+        try {
+            return eventService.updateEventForUser(id, request, currentUser)
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected event update: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<Void> deleteEvent(@PathVariable Long id, Authentication authentication) {
+        User currentUser = getCurrentUser(authentication);
+        return eventService.deleteEventForUser(id, currentUser)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    // Writes a JSON array element by element while the rows are read, on an async thread,
+    // so neither the result list nor the serialized body is ever buffered whole
+    private ResponseEntity<StreamingResponseBody> streamEvents(Consumer<Consumer<EventDTO>> source) {
+        ObjectWriter writer = objectMapper.writerFor(EventDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.writeStartArray();
+                source.accept(event -> {
+                    try {
+                        writer.writeValue(generator, event);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    // Accepts a date ("2025-09-01"), a local date-time or an ISO instant ("2025-09-01T00:00:00Z")
+    private LocalDateTime parseDateTime(String value) {
+        if (value.length() == 10) {
+            return LocalDate.parse(value).atStartOfDay();
+        }
+        if (value.endsWith("Z")) {
+            return LocalDateTime.ofInstant(Instant.parse(value), ZoneId.systemDefault());
+        }
+        return LocalDateTime.parse(value);
+    }
+
+    private User getCurrentUser(Authentication authentication) {
+        try {
+            // The authentication principal should be the User entity since it implements UserDetails
+            if (authentication.getPrincipal() instanceof User) {
+                return (User) authentication.getPrincipal();
+            }
+
+            // Fallback: fetch user from database by username
+            String username = authentication.getName();
+            return userRepository.findByUsername(username)
+                    .orElseThrow(() -> new RuntimeException("User not found: " + username));
+
+        } catch (Exception e) {
+            logger.error("Error getting current user", e);
+            throw new RuntimeException("Unable to get current user", e);
+        }
+    }
+}
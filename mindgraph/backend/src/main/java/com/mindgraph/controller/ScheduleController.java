@@ -0,0 +1,214 @@
+package com.mindgraph.controller;
+
+import com.mindgraph.dto.AvailableSlotDTO;
+import com.mindgraph.dto.GeneratedScheduleDTO;
+import com.mindgraph.dto.ProposedSlotDTO;
+import com.mindgraph.dto.ScheduleConflictDTO;
+import com.mindgraph.dto.ScheduleGenerationRequestDTO;
+import com.mindgraph.dto.SlotConflictsDTO;
+import com.mindgraph.dto.TimeSlotDTO;
+import com.mindgraph.entity.User;
+import com.mindgraph.repository.UserRepository;
+import com.mindgraph.service.CommonAvailabilityService;
+import com.mindgraph.service.FreeSlotService;
+import com.mindgraph.service.ScheduleChangedEvent;
+import com.mindgraph.service.ScheduleConflictService;
+import com.mindgraph.service.ScheduleGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/schedule")
+@CrossOrigin(origins = "http://localhost:3000")
+public class ScheduleController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduleController.class);
+
+    private static final int MAX_SLOTS_PER_CHECK = 1000;
+    private static final int MAX_AVAILABLE_SLOTS = 20;
+    private static final int MAX_MEETING_USERS = 50;
+    private static final int MAX_MEETING_DAYS = 31;
+
+    @Autowired
+    private ScheduleConflictService conflictService;
+
+    @Autowired
+    private FreeSlotService freeSlotService;
+
+    @Autowired
+    private ScheduleGenerator scheduleGenerator;
+
+    @Autowired
+    private CommonAvailabilityService availabilityService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${schedule.common-availability.enabled:true}")
+    private boolean commonAvailabilityEnabled;
+
+    // Events and scheduled tasks overlapping [start, end). taskId is the task being placed; its
+    // own current slot is not reported.
+    @GetMapping("/conflicts")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<List<ScheduleConflictDTO>> getConflicts(@RequestParam(required = false) Long taskId,
+                                                                  @RequestParam String start,
+                                                                  @RequestParam String end,
+                                                                  Authentication authentication) {
+        User currentUser = getCurrentUser(authentication);
+        try {
+            return ResponseEntity.ok(conflictService.findConflicts(currentUser.getId(), parseDateTime(start),
+                    parseDateTime(end), ScheduleChangedEvent.TASK, taskId));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            logger.warn("Rejected conflict check {} - {}: {}", start, end, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Checks a whole proposed schedule at once, against existing items and against itself
+    @PostMapping("/conflicts")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<List<SlotConflictsDTO>> checkConflicts(@RequestBody List<ProposedSlotDTO> slots,
+                                                                 Authentication authentication) {
+        User currentUser = getCurrentUser(authentication);
+        if (slots.size() > MAX_SLOTS_PER_CHECK) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(conflictService.checkSlots(currentUser.getId(), slots));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected schedule check: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Free slots of duration minutes on date (today when omitted), best energy fit first
+    @GetMapping("/available")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<List<AvailableSlotDTO>> getAvailableSlots(@RequestParam int duration,
+                                                                    @RequestParam(required = false) String date,
+                                                                    @RequestParam(defaultValue = "5") int limit,
+                                                                    Authentication authentication) {
+        User currentUser = getCurrentUser(authentication);
+        try {
+            LocalDate day = date != null ? parseDateTime(date).toLocalDate() : LocalDate.now();
+            int size = Math.max(1, Math.min(limit, MAX_AVAILABLE_SLOTS));
+            return ResponseEntity.ok(freeSlotService.findAvailableSlots(currentUser.getId(), day, duration, size,
+                    null, LocalDateTime.now()));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            logger.warn("Rejected availability query {} / {}: {}", date, duration, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Earliest slots of duration minutes when the current user and every user in `users`
+    // (comma-separated usernames) are all free, between dayStart and dayEnd of each day. Only
+    // free times are returned, never what the other users are doing.
+    // Privacy: there is no per-user consent yet, so any signed-in user can learn when any other
+    // active account is free or busy by naming it, down to the minute. Unknown or inactive
+    // usernames get the same 400 as any other invalid request; that still tells them apart from
+    // active ones, as registration already does. Deployments where free/busy time is private
+    // turn the endpoint off with schedule.common-availability.enabled=false (403).
+    @GetMapping("/common-availability")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<List<TimeSlotDTO>> getCommonAvailability(@RequestParam List<String> users,
+                                                                   @RequestParam int duration,
+                                                                   @RequestParam(required = false) String start,
+                                                                   @RequestParam(defaultValue = "7") int days,
+                                                                   @RequestParam(defaultValue = "09:00") String dayStart,
+                                                                   @RequestParam(defaultValue = "17:00") String dayEnd,
+                                                                   @RequestParam(defaultValue = "5") int limit,
+                                                                   Authentication authentication) {
+        if (!commonAvailabilityEnabled) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        User currentUser = getCurrentUser(authentication);
+        Set<String> usernames = new LinkedHashSet<>(users);
+        usernames.remove(currentUser.getUsername());
+        if (usernames.size() > MAX_MEETING_USERS || days < 1 || days > MAX_MEETING_DAYS) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<Long> userIds = new ArrayList<>();
+        userIds.add(currentUser.getId());
+        if (!usernames.isEmpty()) {
+            List<Long> others = userRepository.findActiveIdsByUsernameIn(usernames);
+            if (others.size() != usernames.size()) {
+                // Unknown or inactive usernames
+                return ResponseEntity.badRequest().build();
+            }
+            userIds.addAll(others);
+        }
+        try {
+            LocalDate from = start != null ? parseDateTime(start).toLocalDate() : LocalDate.now();
+            int size = Math.max(1, Math.min(limit, MAX_AVAILABLE_SLOTS));
+            return ResponseEntity.ok(availabilityService.findCommonSlots(userIds, from, days,
+                    LocalTime.parse(dayStart), LocalTime.parse(dayEnd), duration, size, LocalDateTime.now()));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            logger.warn("Rejected common availability query for {}: {}", usernames, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Plans the user's open, unscheduled tasks into free time; see ScheduleGenerator. The body
+    // (optional) sets the horizon and per-run preference overrides.
+    @PostMapping("/generate")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<GeneratedScheduleDTO> generateSchedule(@RequestBody(required = false) ScheduleGenerationRequestDTO request,
+                                                                 Authentication authentication) {
+        User currentUser = getCurrentUser(authentication);
+        try {
+            return ResponseEntity.ok(scheduleGenerator.generate(currentUser,
+                    request != null ? request : new ScheduleGenerationRequestDTO(), LocalDateTime.now()));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected schedule generation: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Accepts a date ("2025-09-01"), a local date-time or an ISO instant ("2025-09-01T00:00:00Z")
+    private LocalDateTime parseDateTime(String value) {
+        if (value.length() == 10) {
+            return LocalDate.parse(value).atStartOfDay();
+        }
+        if (value.endsWith("Z")) {
+            return LocalDateTime.ofInstant(Instant.parse(value), ZoneId.systemDefault());
+        }
+        return LocalDateTime.parse(value);
+    }
+
+    private User getCurrentUser(Authentication authentication) {
+        try {
+            // The authentication principal should be the User entity since it implements UserDetails
+            if (authentication.getPrincipal() instanceof User) {
+                return (User) authentication.getPrincipal();
+            }
+
+            // Fallback: fetch user from database by username
+            String username = authentication.getName();
+            return userRepository.findByUsername(username)
+                    .orElseThrow(() -> new RuntimeException("User not found: " + username));
+
+        } catch (Exception e) {
+            logger.error("Error getting current user", e);
+            throw new RuntimeException("Unable to get current user", e);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.mindgraph.controller;
+
+import com.mindgraph.dto.CursorPageDTO;
+import com.mindgraph.dto.TaskDTO;
+import com.mindgraph.dto.TaskSummaryDTO;
+import com.mindgraph.entity.User;
+import com.mindgraph.repository.UserRepository;
+import com.mindgraph.service.TaskService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/tasks")
+@CrossOrigin(origins = "http://localhost:3000")
+public class TaskController {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskController.class);
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Task list, newest first. Pass the returned nextCursor as "cursor" for the next page.
+    @GetMapping
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<CursorPageDTO<TaskSummaryDTO>> getTasks(@RequestParam(required = false) String cursor,
+                                                                  @RequestParam(defaultValue = "50") int limit,
+                                                                  Authentication authentication) {
+        User currentUser = getCurrentUser(authentication);
+        try {
+            return ResponseEntity.ok(taskService.listTaskSummaries(currentUser, cursor, pageSize(limit)));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected task list request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Ranked full-text search; each word of q matches as a prefix, so it also serves type-ahead
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<List<TaskSummaryDTO>> searchTasks(@RequestParam("q") String query,
+                                                            @RequestParam(defaultValue = "0") int page,
+                                                            @RequestParam(defaultValue = "50") int limit,
+                                                            Authentication authentication) {
+        User currentUser = getCurrentUser(authentication);
+        if (query.trim().isEmpty()) {
+            return ResponseEntity.ok(List.of());
+        }
+        return ResponseEntity.ok(taskService.searchTaskSummaries(currentUser, query.trim(),
+                Math.max(0, page), pageSize(limit)));
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<TaskDTO> getTask(@PathVariable Long id, Authentication authentication) {
+        User currentUser = getCurrentUser(authentication);
+        return taskService.getTaskForUser(id, currentUser)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PostMapping
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<TaskDTO> createTask(@Valid @RequestBody TaskDTO request, Authentication authentication) {
+        User currentUser = getCurrentUser(authentication);
+        try {
+            TaskDTO created = taskService.createTaskForUser(request, currentUser);
+            logger.info("Created task {} for user {}", created.getId(), currentUser.getUsername());
+            return ResponseEntity.status(HttpStatus.CREATED).body(created);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected task: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PutMapping("/{id}")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<TaskDTO> updateTask(@PathVariable Long id, @Valid @RequestBody TaskDTO request,
+                                              Authentication authentication) {
+        User currentUser = getCurrentUser(authentication);
+        try {
+            return taskService.updateTaskForUser(id, request, currentUser)
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            logger.warn("Rejected task update: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PatchMapping("/{id}/complete")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<TaskDTO> markComplete(@PathVariable Long id, Authentication authentication) {
+        User currentUser = getCurrentUser(authentication);
+        return taskService.markTaskCompleteForUser(id, currentUser)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<Void> deleteTask(@PathVariable Long id, Authentication authentication) {
+        User currentUser = getCurrentUser(authentication);
+        return taskService.deleteTaskForUser(id, currentUser)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    private int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    private User getCurrentUser(Authentication authentication) {
+        try {
+            // The authentication principal should be the User entity since it implements UserDetails
+            if (authentication.getPrincipal() instanceof User) {
+                return (User) authentication.getPrincipal();
+            }
+
+            // Fallback: fetch user from database by username
+            String username = authentication.getName();
+            return userRepository.findByUsername(username)
+                    .orElseThrow(() -> new RuntimeException("User not found: " + username));
+
+        } catch (Exception e) {
+            logger.error("Error getting current user", e);
+            throw new RuntimeException("Unable to get current user", e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.mindgraph.dto;
+
+import java.time.LocalDateTime;
+
+// A free slot offered by /schedule/available; energyLevel is the user's average energy level
+// (1-5) over the slot's minutes.
+public class AvailableSlotDTO {
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private double energyLevel;
+
+    public AvailableSlotDTO() {}
+
+    public AvailableSlotDTO(LocalDateTime startTime, LocalDateTime endTime, double energyLevel) {
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.energyLevel = energyLevel;
+    }
+
+    // Getters and Setters
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+
+    public double getEnergyLevel() {
+        return energyLevel;
+    }
+
+    public void setEnergyLevel(double energyLevel) {
+        this.energyLevel = energyLevel;
+    }
+}
@@ -0,0 +1,62 @@
+package com.mindgraph.dto;
+
+import java.time.LocalDateTime;
+
+public class ChatHistoryEntryDTO {
+    private Long id;
+    private String message;
+    private String response;
+    private String messageType;
+    private LocalDateTime createdAt;
+
+    public ChatHistoryEntryDTO() {}
+
+    public ChatHistoryEntryDTO(Long id, String message, String response, String messageType, LocalDateTime createdAt) {
+        this.id = id;
+        this.message = message;
+        this.response = response;
+        this.messageType = messageType;
+        this.createdAt = createdAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public String getResponse() {
+        return response;
+    }
+
+    public void setResponse(String response) {
+        this.response = response;
+    }
+
+    public String getMessageType() {
+        return messageType;
+    }
+
+    public void setMessageType(String messageType) {
+        this.messageType = messageType;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
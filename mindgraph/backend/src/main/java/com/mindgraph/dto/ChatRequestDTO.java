@@ -11,6 +11,8 @@ public class ChatRequestDTO {
     
     private String sessionId; // Optional session ID for conversation tracking
     
+    private String timeZone; // Optional IANA zone (e.g. "Asia/Dhaka") used to resolve relative dates
+    
     public ChatRequestDTO() {
     }
     
@@ -38,4 +40,12 @@ public class ChatRequestDTO {
     public void setSessionId(String sessionId) {
         this.sessionId = sessionId;
     }
+    
+    public String getTimeZone() {
+        return timeZone;
+    }
+    
+    public void setTimeZone(String timeZone) {
+        this.timeZone = timeZone;
+    }
 }
\ No newline at end of file
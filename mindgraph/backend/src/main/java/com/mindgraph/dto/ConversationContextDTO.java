@@ -8,12 +8,16 @@ import java.util.Map;
 
 public class ConversationContextDTO {
     private String sessionId;
+    private Long userId;
     private String currentIntent;
     private String currentStep;
     private Map<String, Object> collectedData;
     private List<String> conversationHistory;
+    // Short digest of turns compacted out of conversationHistory
+    private String historySummary;
     private LocalDateTime lastInteraction;
     private boolean isComplete;
+    private String timeZone;
 
     public ConversationContextDTO() {
         this.collectedData = new HashMap<>();
@@ -36,6 +40,14 @@ public class ConversationContextDTO {
         this.sessionId = sessionId;
     }
 
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
     public String getCurrentIntent() {
         return currentIntent;
     }
@@ -68,6 +80,14 @@ public class ConversationContextDTO {
         this.conversationHistory = conversationHistory;
     }
 
+    public String getHistorySummary() {
+        return historySummary;
+    }
+
+    public void setHistorySummary(String historySummary) {
+        this.historySummary = historySummary;
+    }
+
     public LocalDateTime getLastInteraction() {
         return lastInteraction;
     }
@@ -84,6 +104,14 @@ public class ConversationContextDTO {
         isComplete = complete;
     }
 
+    public String getTimeZone() {
+        return timeZone;
+    }
+
+    public void setTimeZone(String timeZone) {
+        this.timeZone = timeZone;
+    }
+
     // Helper methods
     public void addToHistory(String message) {
         this.conversationHistory.add(message);
@@ -0,0 +1,76 @@
+package com.mindgraph.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Result of POST /schedule/generate. slots can be sent as-is to POST /schedule/conflicts.
+// score is the objective the search maximized (higher is better, only comparable between runs
+// over the same tasks); strategy is GREEDY when smart scheduling is off, LOCAL_SEARCH otherwise.
+public class GeneratedScheduleDTO {
+    private List<ProposedSlotDTO> slots = new ArrayList<>();
+    private List<Long> unscheduledTaskIds = new ArrayList<>();
+    private List<Long> lateTaskIds = new ArrayList<>();
+    private double score;
+    private String strategy;
+    private long elapsedMillis;
+    private boolean applied;
+
+    public GeneratedScheduleDTO() {}
+
+    // Getters and Setters
+    public List<ProposedSlotDTO> getSlots() {
+        return slots;
+    }
+
+    public void setSlots(List<ProposedSlotDTO> slots) {
+        this.slots = slots;
+    }
+
+    public List<Long> getUnscheduledTaskIds() {
+        return unscheduledTaskIds;
+    }
+
+    public void setUnscheduledTaskIds(List<Long> unscheduledTaskIds) {
+        this.unscheduledTaskIds = unscheduledTaskIds;
+    }
+
+    public List<Long> getLateTaskIds() {
+        return lateTaskIds;
+    }
+
+    public void setLateTaskIds(List<Long> lateTaskIds) {
+        this.lateTaskIds = lateTaskIds;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    public String getStrategy() {
+        return strategy;
+    }
+
+    public void setStrategy(String strategy) {
+        this.strategy = strategy;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public boolean isApplied() {
+        return applied;
+    }
+
+    public void setApplied(boolean applied) {
+        this.applied = applied;
+    }
+}
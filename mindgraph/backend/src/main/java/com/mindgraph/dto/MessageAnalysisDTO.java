@@ -0,0 +1,40 @@
+package com.mindgraph.dto;
+
+// Everything learned about one chat turn. In combined mode a single Gemini reply fills both the
+// intent and the task slots; otherwise only the intent is set.
+public class MessageAnalysisDTO {
+    private IntentAnalysisDTO intent;
+    private TaskExtractionDTO taskData;
+
+    public MessageAnalysisDTO() {}
+
+    public MessageAnalysisDTO(IntentAnalysisDTO intent) {
+        this.intent = intent;
+    }
+
+    public MessageAnalysisDTO(IntentAnalysisDTO intent, TaskExtractionDTO taskData) {
+        this.intent = intent;
+        this.taskData = taskData;
+    }
+
+    // Getters and Setters
+    public IntentAnalysisDTO getIntent() {
+        return intent;
+    }
+
+    public void setIntent(IntentAnalysisDTO intent) {
+        this.intent = intent;
+    }
+
+    public TaskExtractionDTO getTaskData() {
+        return taskData;
+    }
+
+    public void setTaskData(TaskExtractionDTO taskData) {
+        this.taskData = taskData;
+    }
+
+    public boolean hasTaskData() {
+        return taskData != null;
+    }
+}
@@ -0,0 +1,50 @@
+package com.mindgraph.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+// One entry of a proposed schedule to check for conflicts. taskId, when set, is the task being
+// placed, so its current slot is not reported against itself.
+public class ProposedSlotDTO {
+    private Long taskId;
+
+    @NotNull(message = "Start time is required")
+    private LocalDateTime startTime;
+
+    @NotNull(message = "End time is required")
+    private LocalDateTime endTime;
+
+    public ProposedSlotDTO() {}
+
+    public ProposedSlotDTO(Long taskId, LocalDateTime startTime, LocalDateTime endTime) {
+        this.taskId = taskId;
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+
+    // Getters and Setters
+    public Long getTaskId() {
+        return taskId;
+    }
+
+    public void setTaskId(Long taskId) {
+        this.taskId = taskId;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+}
@@ -0,0 +1,63 @@
+package com.mindgraph.dto;
+
+import java.time.LocalDateTime;
+
+// An event or scheduled task occupying a time range; type is "EVENT" or "TASK".
+public class ScheduleConflictDTO {
+    private String type;
+    private Long id;
+    private String title;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+
+    public ScheduleConflictDTO() {}
+
+    public ScheduleConflictDTO(String type, Long id, String title, LocalDateTime startTime, LocalDateTime endTime) {
+        this.type = type;
+        this.id = id;
+        this.title = title;
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+
+    // Getters and Setters
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+}
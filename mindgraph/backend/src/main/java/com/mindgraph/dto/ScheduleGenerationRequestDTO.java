@@ -0,0 +1,104 @@
+package com.mindgraph.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// Body of POST /schedule/generate. Every field is optional: the horizon defaults to the next
+// seven days, and the preference fields override the user's stored UserPreference for this run
+// only. apply writes the result to the tasks instead of just proposing it.
+public class ScheduleGenerationRequestDTO {
+    private LocalDate startDate;
+    private Integer days;
+    private Integer timeBudgetMs;
+    private Boolean apply;
+
+    private LocalTime preferredWorkStartTime;
+    private LocalTime preferredWorkEndTime;
+    private Integer bufferTimeMinutes;
+    private Integer preferredBreakDurationMinutes;
+    private Integer maxContinuousWorkMinutes;
+    private Boolean enableSmartScheduling;
+
+    public ScheduleGenerationRequestDTO() {}
+
+    // Getters and Setters
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public Integer getDays() {
+        return days;
+    }
+
+    public void setDays(Integer days) {
+        this.days = days;
+    }
+
+    public Integer getTimeBudgetMs() {
+        return timeBudgetMs;
+    }
+
+    public void setTimeBudgetMs(Integer timeBudgetMs) {
+        this.timeBudgetMs = timeBudgetMs;
+    }
+
+    public Boolean getApply() {
+        return apply;
+    }
+
+    public void setApply(Boolean apply) {
+        this.apply = apply;
+    }
+
+    public LocalTime getPreferredWorkStartTime() {
+        return preferredWorkStartTime;
+    }
+
+    public void setPreferredWorkStartTime(LocalTime preferredWorkStartTime) {
+        this.preferredWorkStartTime = preferredWorkStartTime;
+    }
+
+    public LocalTime getPreferredWorkEndTime() {
+        return preferredWorkEndTime;
+    }
+
+    public void setPreferredWorkEndTime(LocalTime preferredWorkEndTime) {
+        this.preferredWorkEndTime = preferredWorkEndTime;
+    }
+
+    public Integer getBufferTimeMinutes() {
+        return bufferTimeMinutes;
+    }
+
+    public void setBufferTimeMinutes(Integer bufferTimeMinutes) {
+        this.bufferTimeMinutes = bufferTimeMinutes;
+    }
+
+    public Integer getPreferredBreakDurationMinutes() {
+        return preferredBreakDurationMinutes;
+    }
+
+    public void setPreferredBreakDurationMinutes(Integer preferredBreakDurationMinutes) {
+        this.preferredBreakDurationMinutes = preferredBreakDurationMinutes;
+    }
+
+    public Integer getMaxContinuousWorkMinutes() {
+        return maxContinuousWorkMinutes;
+    }
+
+    public void setMaxContinuousWorkMinutes(Integer maxContinuousWorkMinutes) {
+        this.maxContinuousWorkMinutes = maxContinuousWorkMinutes;
+    }
+
+    public Boolean getEnableSmartScheduling() {
+        return enableSmartScheduling;
+    }
+
+    public void setEnableSmartScheduling(Boolean enableSmartScheduling) {
+        this.enableSmartScheduling = enableSmartScheduling;
+    }
+}
@@ -0,0 +1,48 @@
+package com.mindgraph.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Result for one slot of a batch check: existing items it overlaps, and the indexes of other
+// slots in the same proposal it overlaps.
+public class SlotConflictsDTO {
+    private ProposedSlotDTO slot;
+    private List<ScheduleConflictDTO> conflicts = new ArrayList<>();
+    private List<Integer> overlappingSlots = new ArrayList<>();
+
+    public SlotConflictsDTO() {}
+
+    public SlotConflictsDTO(ProposedSlotDTO slot, List<ScheduleConflictDTO> conflicts) {
+        this.slot = slot;
+        this.conflicts = conflicts;
+    }
+
+    public boolean isConflicting() {
+        return !conflicts.isEmpty() || !overlappingSlots.isEmpty();
+    }
+
+    // Getters and Setters
+    public ProposedSlotDTO getSlot() {
+        return slot;
+    }
+
+    public void setSlot(ProposedSlotDTO slot) {
+        this.slot = slot;
+    }
+
+    public List<ScheduleConflictDTO> getConflicts() {
+        return conflicts;
+    }
+
+    public void setConflicts(List<ScheduleConflictDTO> conflicts) {
+        this.conflicts = conflicts;
+    }
+
+    public List<Integer> getOverlappingSlots() {
+        return overlappingSlots;
+    }
+
+    public void setOverlappingSlots(List<Integer> overlappingSlots) {
+        this.overlappingSlots = overlappingSlots;
+    }
+}
@@ -0,0 +1,76 @@
+package com.mindgraph.dto;
+
+import com.mindgraph.entity.TaskPriority;
+import com.mindgraph.entity.TaskStatus;
+import com.mindgraph.entity.TaskType;
+
+// One line of the chatbot's task overview; the only list projection that reads description.
+public class TaskOverviewDTO {
+    private Long id;
+    private String title;
+    private TaskType type;
+    private String description;
+    private TaskPriority priority;
+    private TaskStatus status;
+
+    public TaskOverviewDTO() {}
+
+    public TaskOverviewDTO(Long id, String title, TaskType type, String description,
+                           TaskPriority priority, TaskStatus status) {
+        this.id = id;
+        this.title = title;
+        this.type = type;
+        this.description = description;
+        this.priority = priority;
+        this.status = status;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public TaskType getType() {
+        return type;
+    }
+
+    public void setType(TaskType type) {
+        this.type = type;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public TaskPriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(TaskPriority priority) {
+        this.priority = priority;
+    }
+
+    public TaskStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(TaskStatus status) {
+        this.status = status;
+    }
+}
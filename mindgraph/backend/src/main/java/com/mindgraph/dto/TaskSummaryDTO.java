@@ -0,0 +1,161 @@
+package com.mindgraph.dto;
+
+import com.mindgraph.entity.DifficultyLevel;
+import com.mindgraph.entity.TaskPriority;
+import com.mindgraph.entity.TaskStatus;
+import com.mindgraph.entity.TaskType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Row of a task list. Built by a JPQL constructor projection, so the TEXT description/notes
+// columns are never read; tags are filled in afterwards with one query per page.
+public class TaskSummaryDTO {
+    private Long id;
+    private String title;
+    private TaskType type;
+    private TaskStatus status;
+    private TaskPriority priority;
+    private DifficultyLevel difficulty;
+    private Integer estimatedDurationMinutes;
+    private LocalDateTime deadline;
+    private LocalDateTime scheduledStartTime;
+    private LocalDateTime scheduledEndTime;
+    private LocalDateTime completedAt;
+    private LocalDateTime createdAt;
+    private List<String> tags = new ArrayList<>();
+
+    public TaskSummaryDTO() {}
+
+    public TaskSummaryDTO(Long id,
+                          String title,
+                          TaskType type,
+                          TaskStatus status,
+                          TaskPriority priority,
+                          DifficultyLevel difficulty,
+                          Integer estimatedDurationMinutes,
+                          LocalDateTime deadline,
+                          LocalDateTime scheduledStartTime,
+                          LocalDateTime scheduledEndTime,
+                          LocalDateTime completedAt,
+                          LocalDateTime createdAt) {
+        this.id = id;
+        this.title = title;
+        this.type = type;
+        this.status = status;
+        this.priority = priority;
+        this.difficulty = difficulty;
+        this.estimatedDurationMinutes = estimatedDurationMinutes;
+        this.deadline = deadline;
+        this.scheduledStartTime = scheduledStartTime;
+        this.scheduledEndTime = scheduledEndTime;
+        this.completedAt = completedAt;
+        this.createdAt = createdAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public TaskType getType() {
+        return type;
+    }
+
+    public void setType(TaskType type) {
+        this.type = type;
+    }
+
+    public TaskStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(TaskStatus status) {
+        this.status = status;
+    }
+
+    public TaskPriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(TaskPriority priority) {
+        this.priority = priority;
+    }
+
+    public DifficultyLevel getDifficulty() {
+        return difficulty;
+    }
+
+    public void setDifficulty(DifficultyLevel difficulty) {
+        this.difficulty = difficulty;
+    }
+
+    public Integer getEstimatedDurationMinutes() {
+        return estimatedDurationMinutes;
+    }
+
+    public void setEstimatedDurationMinutes(Integer estimatedDurationMinutes) {
+        this.estimatedDurationMinutes = estimatedDurationMinutes;
+    }
+
+    public LocalDateTime getDeadline() {
+        return deadline;
+    }
+
+    public void setDeadline(LocalDateTime deadline) {
+        this.deadline = deadline;
+    }
+
+    public LocalDateTime getScheduledStartTime() {
+        return scheduledStartTime;
+    }
+
+    public void setScheduledStartTime(LocalDateTime scheduledStartTime) {
+        this.scheduledStartTime = scheduledStartTime;
+    }
+
+    public LocalDateTime getScheduledEndTime() {
+        return scheduledEndTime;
+    }
+
+    public void setScheduledEndTime(LocalDateTime scheduledEndTime) {
+        this.scheduledEndTime = scheduledEndTime;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+}
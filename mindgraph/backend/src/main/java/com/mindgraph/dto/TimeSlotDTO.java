@@ -0,0 +1,33 @@
+package com.mindgraph.dto;
+
+import java.time.LocalDateTime;
+
+// A time range free for everyone asked about, from /schedule/common-availability
+public class TimeSlotDTO {
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+
+    public TimeSlotDTO() {}
+
+    public TimeSlotDTO(LocalDateTime startTime, LocalDateTime endTime) {
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+
+    // Getters and Setters
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+}
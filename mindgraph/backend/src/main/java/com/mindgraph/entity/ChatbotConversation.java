@@ -0,0 +1,54 @@
+package com.mindgraph.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// One chat turn. Rows are inserted in JDBC batches by ChatHistoryWriter; the mapping is used for
+// reads and keeps the table in the Hibernate-managed schema.
+@Entity
+@Table(name = "chatbot_conversations",
+       indexes = @Index(name = "idx_chatbot_conversations_user_id_id", columnList = "user_id, id"))
+public class ChatbotConversation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String message;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String response;
+
+    @Column(name = "message_type", length = 50)
+    private String messageType = "GENERAL";
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public ChatbotConversation() {}
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public User getUser() { return user; }
+    public void setUser(User user) { this.user = user; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public String getResponse() { return response; }
+    public void setResponse(String response) { this.response = response; }
+
+    public String getMessageType() { return messageType; }
+    public void setMessageType(String messageType) { this.messageType = messageType; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -8,7 +8,8 @@ import jakarta.validation.constraints.Size;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "events")
+@Table(name = "events",
+       indexes = @Index(name = "idx_events_user_start_end", columnList = "user_id, start_time, end_time"))
 public class Event {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
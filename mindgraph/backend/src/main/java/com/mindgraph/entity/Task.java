@@ -10,7 +10,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks",
+       indexes = @Index(name = "idx_tasks_user_created_id", columnList = "user_id, created_at, id"))
 public class Task {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
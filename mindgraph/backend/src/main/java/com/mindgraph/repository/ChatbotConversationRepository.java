@@ -0,0 +1,22 @@
+package com.mindgraph.repository;
+
+import com.mindgraph.dto.ChatHistoryEntryDTO;
+import com.mindgraph.entity.ChatbotConversation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ChatbotConversationRepository extends JpaRepository<ChatbotConversation, Long> {
+    
+    // Keyset page: newest first, strictly older than beforeId (served by the user_id, id index)
+    @Query("SELECT new com.mindgraph.dto.ChatHistoryEntryDTO(c.id, c.message, c.response, c.messageType, c.createdAt) " +
+           "FROM ChatbotConversation c WHERE c.user.id = :userId AND c.id < :beforeId ORDER BY c.id DESC")
+    List<ChatHistoryEntryDTO> findHistoryBefore(@Param("userId") Long userId,
+                                                @Param("beforeId") Long beforeId,
+                                                Pageable pageable);
+}
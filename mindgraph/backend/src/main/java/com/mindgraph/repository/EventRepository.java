@@ -1,19 +1,29 @@
 package com.mindgraph.repository;
 
+import com.mindgraph.dto.EventDTO;
+import com.mindgraph.dto.ScheduleConflictDTO;
 import com.mindgraph.entity.Event;
 import com.mindgraph.entity.EventType;
 import com.mindgraph.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface EventRepository extends JpaRepository<Event, Long> {
     
+    // An event that takes place once: not recurring, or flagged recurring without a pattern
+    String SINGLE_EVENT = "(e.isRecurring = false OR e.isRecurring IS NULL OR e.recurrencePattern IS NULL)";
+    
     List<Event> findByUser(User user);
     
     List<Event> findByUserAndType(User user, EventType type);
@@ -37,8 +47,57 @@ public interface EventRepository extends JpaRepository<Event, Long> {
     @Query("SELECT e FROM Event e WHERE e.user = :user AND e.isRecurring = true")
     List<Event> findRecurringEvents(@Param("user") User user);
     
-    @Query("SELECT e FROM Event e WHERE e.user = :user AND " +
-           "(LOWER(e.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(e.description) LIKE LOWER(CONCAT('%', :keyword, '%')))")
-    List<Event> searchEventsByKeyword(@Param("user") User user, @Param("keyword") String keyword);
+    // Best-ranked matches first; see searchEventIds
+    default List<Event> searchEventsByKeyword(User user, String keyword) {
+        String query = FullTextQuery.prefixQuery(keyword);
+        if (query == null) {
+            return List.of();
+        }
+        List<Long> ids = searchEventIds(user.getId(), query, FullTextQuery.UNPAGED_LIMIT, 0);
+        return FullTextQuery.inRankOrder(ids, findAllById(ids), Event::getId);
+    }
+    
+    // Ids of the user's events matching a tsquery, best first. search_vector is a generated column
+    // over title (A), location (B) and description (C) with a GIN index.
+    @Query(value = "SELECT e.id FROM events e " +
+                   "WHERE e.user_id = :userId AND e.search_vector @@ to_tsquery('simple', :query) " +
+                   "ORDER BY ts_rank(e.search_vector, to_tsquery('simple', :query)) DESC, e.id DESC " +
+                   "LIMIT :limit OFFSET :offset",
+           nativeQuery = true)
+    List<Long> searchEventIds(@Param("userId") Long userId, @Param("query") String query,
+                              @Param("limit") int limit, @Param("offset") long offset);
+    
+    Optional<Event> findByIdAndUserId(Long id, Long userId);
+    
+    // Every single (non-recurring) event that overlaps [start, end), including ones that began
+    // before the window; recurring series are expanded by RecurrenceExpander instead. Served by
+    // the (user_id, start_time, end_time) index: start_time bounds the range scan and end_time
+    // is checked from the index entry. Rows are fetched in chunks while the caller consumes the
+    // stream, which must happen inside a transaction.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "256"))
+    @Query("SELECT new com.mindgraph.dto.EventDTO(e.id, e.title, e.description, e.startTime, e.endTime, e.type, " +
+           "e.location, e.isAllDay, e.isRecurring, e.recurrencePattern, e.reminderMinutesBefore, e.createdAt, e.updatedAt) " +
+           "FROM Event e WHERE e.user.id = :userId AND e.startTime < :end AND e.endTime > :start " +
+           "AND " + SINGLE_EVENT + " ORDER BY e.startTime ASC, e.id ASC")
+    Stream<EventDTO> streamOverlapping(@Param("userId") Long userId,
+                                       @Param("start") LocalDateTime start,
+                                       @Param("end") LocalDateTime end);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "256"))
+    @Query("SELECT new com.mindgraph.dto.EventDTO(e.id, e.title, e.description, e.startTime, e.endTime, e.type, " +
+           "e.location, e.isAllDay, e.isRecurring, e.recurrencePattern, e.reminderMinutesBefore, e.createdAt, e.updatedAt) " +
+           "FROM Event e WHERE e.user.id = :userId ORDER BY e.startTime ASC, e.id ASC")
+    Stream<EventDTO> streamByUserId(@Param("userId") Long userId);
+    
+    // The user's series definitions, expanded into occurrences by RecurrenceExpander
+    @Query("SELECT new com.mindgraph.dto.EventDTO(e.id, e.title, e.description, e.startTime, e.endTime, e.type, " +
+           "e.location, e.isAllDay, e.isRecurring, e.recurrencePattern, e.reminderMinutesBefore, e.createdAt, e.updatedAt) " +
+           "FROM Event e WHERE e.user.id = :userId AND e.isRecurring = true AND e.recurrencePattern IS NOT NULL " +
+           "ORDER BY e.id ASC")
+    List<EventDTO> findRecurringSeries(@Param("userId") Long userId);
+    
+    // Single events on the user's calendar, as loaded into the conflict index
+    @Query("SELECT new com.mindgraph.dto.ScheduleConflictDTO('EVENT', e.id, e.title, e.startTime, e.endTime) " +
+           "FROM Event e WHERE e.user.id = :userId AND " + SINGLE_EVENT)
+    List<ScheduleConflictDTO> findScheduleItems(@Param("userId") Long userId);
 }
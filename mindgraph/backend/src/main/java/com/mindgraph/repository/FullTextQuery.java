@@ -0,0 +1,53 @@
+package com.mindgraph.repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+// Helpers for the search_vector queries of TaskRepository and EventRepository.
+final class FullTextQuery {
+
+    // Upper bound for the old unpaged search methods
+    static final int UNPAGED_LIMIT = 1000;
+
+    private FullTextQuery() {}
+
+    // "team sync 2" -> "team:* & sync:* & 2:*": every word must match, each as a prefix so
+    // type-ahead finds "synchronize" from "sync". Only letters and digits are kept, so the
+    // result is always valid tsquery syntax. Null when nothing searchable is left.
+    static String prefixQuery(String keyword) {
+        if (keyword == null) {
+            return null;
+        }
+        StringBuilder query = new StringBuilder();
+        for (String word : keyword.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            if (query.length() > 0) {
+                query.append(" & ");
+            }
+            query.append(word).append(":*");
+        }
+        return query.length() > 0 ? query.toString() : null;
+    }
+
+    // Rows loaded by id come back in table order; put them back in rank order
+    static <T> List<T> inRankOrder(List<Long> rankedIds, List<T> rows, Function<T, Long> idOf) {
+        Map<Long, T> byId = new HashMap<>();
+        for (T row : rows) {
+            byId.put(idOf.apply(row), row);
+        }
+        List<T> ordered = new ArrayList<>(rankedIds.size());
+        for (Long id : rankedIds) {
+            T row = byId.get(id);
+            if (row != null) {
+                ordered.add(row);
+            }
+        }
+        return ordered;
+    }
+}
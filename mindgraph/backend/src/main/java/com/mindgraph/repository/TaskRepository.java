@@ -1,9 +1,13 @@
 package com.mindgraph.repository;
 
+import com.mindgraph.dto.ScheduleConflictDTO;
+import com.mindgraph.dto.TaskOverviewDTO;
+import com.mindgraph.dto.TaskSummaryDTO;
 import com.mindgraph.entity.Task;
 import com.mindgraph.entity.TaskStatus;
 import com.mindgraph.entity.TaskPriority;
 import com.mindgraph.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -50,12 +54,82 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     @Query("SELECT COUNT(t) FROM Task t WHERE t.user = :user AND t.status = :status")
     Long countTasksByUserAndStatus(@Param("user") User user, @Param("status") TaskStatus status);
     
-    @Query("SELECT t FROM Task t WHERE t.user = :user AND " +
-           "(LOWER(t.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(t.description) LIKE LOWER(CONCAT('%', :keyword, '%')))")
-    List<Task> searchTasksByKeyword(@Param("user") User user, @Param("keyword") String keyword);
+    // Best-ranked matches first; see searchTaskIds
+    default List<Task> searchTasksByKeyword(User user, String keyword) {
+        String query = FullTextQuery.prefixQuery(keyword);
+        if (query == null) {
+            return List.of();
+        }
+        List<Long> ids = searchTaskIds(user.getId(), query, FullTextQuery.UNPAGED_LIMIT, 0);
+        return FullTextQuery.inRankOrder(ids, findAllById(ids), Task::getId);
+    }
     
-    // Additional method for chatbot
-    @Query("SELECT t FROM Task t WHERE t.user.id = :userId ORDER BY t.createdAt DESC")
-    List<Task> findByUserIdOrderByCreatedAtDesc(@Param("userId") Long userId);
+    Optional<Task> findByIdAndUserId(Long id, Long userId);
+    
+    // Task list keyset pages, newest first, served by the (user_id, created_at, id) index.
+    // Only list columns are selected; description, notes and collections stay in the table.
+    @Query("SELECT new com.mindgraph.dto.TaskSummaryDTO(t.id, t.title, t.type, t.status, t.priority, t.difficulty, " +
+           "t.estimatedDurationMinutes, t.deadline, t.scheduledStartTime, t.scheduledEndTime, t.completedAt, t.createdAt) " +
+           "FROM Task t WHERE t.user.id = :userId ORDER BY t.createdAt DESC, t.id DESC")
+    List<TaskSummaryDTO> findSummaries(@Param("userId") Long userId, Pageable pageable);
+    
+    // Rows strictly after the (createdAt, id) cursor in the same order
+    @Query("SELECT new com.mindgraph.dto.TaskSummaryDTO(t.id, t.title, t.type, t.status, t.priority, t.difficulty, " +
+           "t.estimatedDurationMinutes, t.deadline, t.scheduledStartTime, t.scheduledEndTime, t.completedAt, t.createdAt) " +
+           "FROM Task t WHERE t.user.id = :userId AND t.createdAt <= :createdAt " +
+           "AND (t.createdAt < :createdAt OR t.id < :id) ORDER BY t.createdAt DESC, t.id DESC")
+    List<TaskSummaryDTO> findSummariesAfter(@Param("userId") Long userId,
+                                            @Param("createdAt") LocalDateTime createdAt,
+                                            @Param("id") Long id,
+                                            Pageable pageable);
+    
+    // One page of ranked search results as list rows
+    default List<TaskSummaryDTO> searchSummaries(Long userId, String keyword, Pageable pageable) {
+        String query = FullTextQuery.prefixQuery(keyword);
+        if (query == null) {
+            return List.of();
+        }
+        List<Long> ids = searchTaskIds(userId, query, pageable.getPageSize(), pageable.getOffset());
+        return ids.isEmpty() ? List.of() : FullTextQuery.inRankOrder(ids, findSummariesByIds(ids), TaskSummaryDTO::getId);
+    }
+    
+    // Ids of the user's tasks matching a tsquery (see FullTextQuery), best first. search_vector is
+    // a generated column over title (weight A) and description (weight B) with a GIN index, so
+    // matching is an index lookup however long the descriptions are.
+    @Query(value = "SELECT t.id FROM tasks t " +
+                   "WHERE t.user_id = :userId AND t.search_vector @@ to_tsquery('simple', :query) " +
+                   "ORDER BY ts_rank(t.search_vector, to_tsquery('simple', :query)) DESC, t.id DESC " +
+                   "LIMIT :limit OFFSET :offset",
+           nativeQuery = true)
+    List<Long> searchTaskIds(@Param("userId") Long userId, @Param("query") String query,
+                             @Param("limit") int limit, @Param("offset") long offset);
+    
+    @Query("SELECT new com.mindgraph.dto.TaskSummaryDTO(t.id, t.title, t.type, t.status, t.priority, t.difficulty, " +
+           "t.estimatedDurationMinutes, t.deadline, t.scheduledStartTime, t.scheduledEndTime, t.completedAt, t.createdAt) " +
+           "FROM Task t WHERE t.id IN :ids")
+    List<TaskSummaryDTO> findSummariesByIds(@Param("ids") List<Long> ids);
+    
+    // Tags of a whole page in one query, as (taskId, tag) pairs
+    @Query("SELECT t.id, tag FROM Task t JOIN t.tags tag WHERE t.id IN :taskIds")
+    List<Object[]> findTagsByTaskIds(@Param("taskIds") List<Long> taskIds);
+    
+    // Newest tasks for the chatbot's overview; limited by the Pageable, so description is only
+    // read for the rows that are shown
+    @Query("SELECT new com.mindgraph.dto.TaskOverviewDTO(t.id, t.title, t.type, t.description, t.priority, t.status) " +
+           "FROM Task t WHERE t.user.id = :userId ORDER BY t.createdAt DESC, t.id DESC")
+    List<TaskOverviewDTO> findRecentOverviews(@Param("userId") Long userId, Pageable pageable);
+    
+    long countByUserId(Long userId);
+    
+    // Scheduled tasks that still occupy their slot, as loaded into the conflict index
+    @Query("SELECT new com.mindgraph.dto.ScheduleConflictDTO('TASK', t.id, t.title, t.scheduledStartTime, t.scheduledEndTime) " +
+           "FROM Task t WHERE t.user.id = :userId AND t.scheduledStartTime IS NOT NULL " +
+           "AND t.scheduledEndTime IS NOT NULL AND t.status NOT IN :inactive")
+    List<ScheduleConflictDTO> findScheduleItems(@Param("userId") Long userId,
+                                                @Param("inactive") List<TaskStatus> inactive);
+    
+    // Open tasks without a time yet, as planned by ScheduleGenerator
+    @Query("SELECT t FROM Task t WHERE t.user.id = :userId AND t.scheduledStartTime IS NULL " +
+           "AND t.status IN :statuses")
+    List<Task> findUnscheduledTasks(@Param("userId") Long userId, @Param("statuses") List<TaskStatus> statuses);
 }
@@ -6,6 +6,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -20,11 +22,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Boolean existsByEmail(String email);
     
     @Query("SELECT u FROM User u WHERE u.isActive = true")
-    java.util.List<User> findAllActiveUsers();
+    List<User> findAllActiveUsers();
     
     @Query("SELECT u FROM User u WHERE u.username = :username AND u.isActive = true")
     Optional<User> findActiveUserByUsername(@Param("username") String username);
     
     @Query("SELECT u FROM User u WHERE u.email = :email AND u.isActive = true")
     Optional<User> findActiveUserByEmail(@Param("email") String email);
+    
+    @Query("SELECT u.id FROM User u WHERE u.username IN :usernames AND u.isActive = true")
+    List<Long> findActiveIdsByUsernameIn(@Param("usernames") Collection<String> usernames);
 }
@@ -0,0 +1,211 @@
+package com.mindgraph.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Write-behind persistence of chat turns into chatbot_conversations.
+// enqueue() normally just adds the turn to a bounded queue; one background thread drains the
+// queue and inserts turns in JDBC batches once a batch is full or the oldest pending turn has
+// waited for the flush interval. When the queue is full the caller is held back instead: it waits
+// up to the offer timeout for room, then inserts its turn itself, so no turn is lost while the
+// database is slow. Dropping turns when full is available as an explicit opt-in
+// (drop-when-full). Pending turns are flushed on shutdown.
+@Component
+public class ChatHistoryWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatHistoryWriter.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO chatbot_conversations (user_id, message, response, message_type, created_at) " +
+            "VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long offerTimeoutNanos;
+    private final boolean dropWhenFull;
+
+    private final BlockingQueue<PendingTurn> queue;
+    private volatile boolean running;
+    private Thread writerThread;
+
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+    private final Counter waited;
+    private final Counter inline;
+    private final Timer flushTimer;
+
+    public ChatHistoryWriter(JdbcTemplate jdbcTemplate,
+                             @Value("${chatbot.history.persistence.enabled:true}") boolean enabled,
+                             @Value("${chatbot.history.persistence.queue-capacity:10000}") int queueCapacity,
+                             @Value("${chatbot.history.persistence.batch-size:100}") int batchSize,
+                             @Value("${chatbot.history.persistence.flush-interval:1s}") Duration flushInterval,
+                             @Value("${chatbot.history.persistence.offer-timeout:200ms}") Duration offerTimeout,
+                             @Value("${chatbot.history.persistence.drop-when-full:false}") boolean dropWhenFull,
+                             MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.offerTimeoutNanos = offerTimeout.toNanos();
+        this.dropWhenFull = dropWhenFull;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        this.written = Counter.builder("chatbot.history.writes").tag("result", "written").register(meterRegistry);
+        this.dropped = Counter.builder("chatbot.history.writes").tag("result", "dropped").register(meterRegistry);
+        this.failed = Counter.builder("chatbot.history.writes").tag("result", "failed").register(meterRegistry);
+        this.waited = Counter.builder("chatbot.history.backpressure").tag("outcome", "waited").register(meterRegistry);
+        this.inline = Counter.builder("chatbot.history.backpressure").tag("outcome", "inline").register(meterRegistry);
+        this.flushTimer = Timer.builder("chatbot.history.flush").register(meterRegistry);
+        Gauge.builder("chatbot.history.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::writeLoop, "chat-history-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    // Blocks only while the queue is full, so call it off the event loop. Returns false if the
+    // turn was not stored: dropped by drop-when-full, or the inline insert failed.
+    public boolean enqueue(Long userId, String message, String response, String messageType) {
+        if (!enabled || userId == null) {
+            return false;
+        }
+        PendingTurn turn = new PendingTurn(userId, message, response, messageType, LocalDateTime.now());
+        if (queue.offer(turn)) {
+            return true;
+        }
+        if (dropWhenFull) {
+            dropped.increment();
+            logger.warn("Chat history queue is full, dropping turn for user {}", userId);
+            return false;
+        }
+
+        try {
+            if (queue.offer(turn, offerTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                waited.increment();
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // The writer is still behind; this caller pays for its own insert
+        inline.increment();
+        logger.warn("Chat history queue is full, writing turn for user {} directly", userId);
+        return flush(List.of(turn));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        writerThread.interrupt();
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Whatever the writer did not get to before stopping
+        List<PendingTurn> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (int from = 0; from < remaining.size(); from += batchSize) {
+            flush(remaining.subList(from, Math.min(remaining.size(), from + batchSize)));
+        }
+    }
+
+    private void writeLoop() {
+        List<PendingTurn> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                PendingTurn first = queue.take();
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+
+                // Fill the batch until it is full or the first turn has waited long enough
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    PendingTurn next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                // Shutdown: write the partial batch; shutdown() drains what is still queued
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private boolean flush(List<PendingTurn> batch) {
+        if (batch.isEmpty()) {
+            return true;
+        }
+        try {
+            flushTimer.record(() -> jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, turn) -> {
+                ps.setLong(1, turn.userId);
+                ps.setString(2, turn.message);
+                ps.setString(3, turn.response);
+                ps.setString(4, turn.messageType);
+                ps.setTimestamp(5, Timestamp.valueOf(turn.createdAt));
+            }));
+            written.increment(batch.size());
+            return true;
+        } catch (Exception e) {
+            failed.increment(batch.size());
+            logger.error("Failed to persist {} chat turn(s)", batch.size(), e);
+            return false;
+        }
+    }
+
+    private static final class PendingTurn {
+        private final Long userId;
+        private final String message;
+        private final String response;
+        private final String messageType;
+        private final LocalDateTime createdAt;
+
+        PendingTurn(Long userId, String message, String response, String messageType, LocalDateTime createdAt) {
+            this.userId = userId;
+            this.message = message;
+            this.response = response;
+            this.messageType = messageType;
+            this.createdAt = createdAt;
+        }
+    }
+}
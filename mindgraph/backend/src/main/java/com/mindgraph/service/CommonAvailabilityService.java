@@ -0,0 +1,129 @@
+package com.mindgraph.service;
+
+import com.mindgraph.dto.ScheduleConflictDTO;
+import com.mindgraph.dto.TimeSlotDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Finds times when several users are all free. Each user's busy time is kept per day as a
+// MinuteBitmap built from ScheduleConflictService (events, recurring occurrences and scheduled
+// tasks); a query ORs the users' bitmaps for each day a word at a time and scans the result for
+// free runs, so answering for dozens of users touches a few hundred longs per day.
+// A user's bitmaps are dropped whenever their schedule changes, and after a period without queries.
+@Service
+public class CommonAvailabilityService {
+
+    @Autowired
+    private ScheduleConflictService conflictService;
+
+    private final Map<Long, UserDays> cache = new ConcurrentHashMap<>();
+    private final long idleTimeoutNanos;
+
+    private final Counter builds;
+
+    public CommonAvailabilityService(@Value("${schedule.conflicts.idle-timeout:30m}") Duration idleTimeout,
+                                     MeterRegistry meterRegistry) {
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.builds = Counter.builder("schedule.availability.bitmap.builds").register(meterRegistry);
+    }
+
+    // Up to limit slots of durationMinutes, earliest first, in which every user is free. Only
+    // [dayStart, dayEnd) of each day from startDate on is searched, and nothing before now.
+    // Each free run yields one slot, at its start.
+    public List<TimeSlotDTO> findCommonSlots(List<Long> userIds, LocalDate startDate, int days,
+                                             LocalTime dayStart, LocalTime dayEnd, int durationMinutes,
+                                             int limit, LocalDateTime now) {
+        if (durationMinutes <= 0 || durationMinutes > MinuteBitmap.MINUTES) {
+            throw new IllegalArgumentException("Duration must be between 1 and " + MinuteBitmap.MINUTES + " minutes");
+        }
+        int windowStart = minuteOfDay(dayStart);
+        int windowEnd = dayEnd.equals(LocalTime.MIDNIGHT) ? MinuteBitmap.MINUTES : minuteOfDay(dayEnd);
+        if (windowEnd <= windowStart) {
+            throw new IllegalArgumentException("The daily window must end after it starts");
+        }
+
+        List<TimeSlotDTO> slots = new ArrayList<>();
+        for (int d = 0; d < days && slots.size() < limit; d++) {
+            LocalDate date = startDate.plusDays(d);
+            if (date.isBefore(now.toLocalDate())) {
+                continue;
+            }
+            long[] combined = MinuteBitmap.empty();
+            MinuteBitmap.setRange(combined, 0, windowStart);
+            MinuteBitmap.setRange(combined, windowEnd, MinuteBitmap.MINUTES);
+            if (date.equals(now.toLocalDate())) {
+                // The current minute has already started
+                MinuteBitmap.setRange(combined, 0, minuteOfDay(now.toLocalTime()) + 1);
+            }
+            for (Long userId : userIds) {
+                MinuteBitmap.or(combined, busy(userId, date));
+            }
+
+            int start = MinuteBitmap.findFreeRun(combined, windowStart, durationMinutes);
+            while (start >= 0 && slots.size() < limit) {
+                LocalDateTime slotStart = date.atStartOfDay().plusMinutes(start);
+                slots.add(new TimeSlotDTO(slotStart, slotStart.plusMinutes(durationMinutes)));
+                start = MinuteBitmap.findFreeRun(combined, MinuteBitmap.nextBusy(combined, start), durationMinutes);
+            }
+        }
+        return slots;
+    }
+
+    // Runs after ScheduleConflictService and RecurrenceExpander have applied the same change, so
+    // a bitmap rebuilt from then on reads the new state
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void onScheduleChanged(ScheduleChangedEvent event) {
+        cache.remove(event.getUserId());
+    }
+
+    @Scheduled(fixedDelayString = "${schedule.conflicts.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        cache.values().removeIf(days -> now - days.lastAccess > idleTimeoutNanos);
+    }
+
+    private long[] busy(Long userId, LocalDate date) {
+        UserDays days = cache.computeIfAbsent(userId, id -> new UserDays());
+        days.lastAccess = System.nanoTime();
+        return days.bitmaps.computeIfAbsent(date.toEpochDay(), epochDay -> build(userId, date));
+    }
+
+    private long[] build(Long userId, LocalDate date) {
+        LocalDateTime start = date.atStartOfDay();
+        long[] words = MinuteBitmap.empty();
+        for (ScheduleConflictDTO item : conflictService.findConflicts(userId, start, start.plusDays(1), null, null)) {
+            // Partly busy minutes count as busy
+            MinuteBitmap.setRange(words, (int) Math.max(0, Duration.between(start, item.getStartTime()).toMinutes()),
+                    (int) Math.min(MinuteBitmap.MINUTES,
+                            (Duration.between(start, item.getEndTime()).getSeconds() + 59) / 60));
+        }
+        builds.increment();
+        return words;
+    }
+
+    private static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private static final class UserDays {
+        private final Map<Long, long[]> bitmaps = new ConcurrentHashMap<>();
+        private volatile long lastAccess;
+    }
+}
@@ -0,0 +1,167 @@
+package com.mindgraph.service;
+
+import com.mindgraph.dto.ConversationContextDTO;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Compact binary form of a ConversationContextDTO, used for snapshots.
+// Layout (all integers big-endian, strings as int length + UTF-8 bytes, length -1 for null):
+//   sessionId, lastInteraction (epoch millis), userId (flag byte + long), currentIntent,
+//   currentStep, timeZone, historySummary, complete (byte), history (count + strings),
+//   collectedData (count + key + tagged value).
+// sessionId and lastInteraction come first so an index can be built without decoding the rest.
+@Component
+public class ConversationContextCodec {
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_LONG = 2;
+    private static final byte TYPE_DOUBLE = 3;
+    private static final byte TYPE_BOOLEAN = 4;
+    private static final byte TYPE_DATE_TIME = 5;
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    // Only the newest history lines are kept; older turns live on in the summary
+    public byte[] encode(ConversationContextDTO context, int maxHistoryLines) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            writeString(out, context.getSessionId());
+            out.writeLong(context.getLastInteraction().atZone(ZONE).toInstant().toEpochMilli());
+            out.writeBoolean(context.getUserId() != null);
+            out.writeLong(context.getUserId() != null ? context.getUserId() : 0L);
+            writeString(out, context.getCurrentIntent());
+            writeString(out, context.getCurrentStep());
+            writeString(out, context.getTimeZone());
+            writeString(out, context.getHistorySummary());
+            out.writeBoolean(context.isComplete());
+
+            List<String> history = context.getConversationHistory();
+            int from = Math.max(0, history.size() - maxHistoryLines);
+            out.writeInt(history.size() - from);
+            for (int i = from; i < history.size(); i++) {
+                writeString(out, history.get(i));
+            }
+
+            Map<String, Object> data = context.getCollectedData();
+            out.writeInt(data.size());
+            for (Map.Entry<String, Object> entry : data.entrySet()) {
+                writeString(out, entry.getKey());
+                writeValue(out, entry.getValue());
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public ConversationContextDTO decode(ByteBuffer in) {
+        ConversationContextDTO context = new ConversationContextDTO(readString(in));
+        context.setLastInteraction(LocalDateTime.ofInstant(Instant.ofEpochMilli(in.getLong()), ZONE));
+        boolean hasUser = in.get() != 0;
+        long userId = in.getLong();
+        context.setUserId(hasUser ? userId : null);
+        context.setCurrentIntent(readString(in));
+        context.setCurrentStep(readString(in));
+        context.setTimeZone(readString(in));
+        context.setHistorySummary(readString(in));
+        context.setComplete(in.get() != 0);
+
+        int historySize = in.getInt();
+        List<String> history = new ArrayList<>(historySize);
+        for (int i = 0; i < historySize; i++) {
+            history.add(readString(in));
+        }
+        context.setConversationHistory(history);
+
+        int dataSize = in.getInt();
+        Map<String, Object> data = new HashMap<>();
+        for (int i = 0; i < dataSize; i++) {
+            data.put(readString(in), readValue(in));
+        }
+        context.setCollectedData(data);
+        return context;
+    }
+
+    // Reads just the leading sessionId; the buffer is left positioned at lastInteraction
+    public String readSessionId(ByteBuffer in) {
+        return readString(in);
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(TYPE_NULL);
+        } else if (value instanceof Integer || value instanceof Long) {
+            out.writeByte(TYPE_LONG);
+            out.writeLong(((Number) value).longValue());
+        } else if (value instanceof Number) {
+            out.writeByte(TYPE_DOUBLE);
+            out.writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof Boolean) {
+            out.writeByte(TYPE_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof LocalDateTime) {
+            out.writeByte(TYPE_DATE_TIME);
+            writeString(out, value.toString());
+        } else {
+            // Anything else is kept in its text form
+            out.writeByte(TYPE_STRING);
+            writeString(out, value.toString());
+        }
+    }
+
+    private static Object readValue(ByteBuffer in) {
+        byte type = in.get();
+        switch (type) {
+            case TYPE_NULL:
+                return null;
+            case TYPE_LONG:
+                return in.getLong();
+            case TYPE_DOUBLE:
+                return in.getDouble();
+            case TYPE_BOOLEAN:
+                return in.get() != 0;
+            case TYPE_DATE_TIME:
+                return LocalDateTime.parse(readString(in));
+            case TYPE_STRING:
+                return readString(in);
+            default:
+                throw new IllegalArgumentException("Unknown value type " + type);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] utf8 = new byte[length];
+        in.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
@@ -1,75 +1,64 @@
 package com.mindgraph.service;
 
 import com.mindgraph.dto.ConversationContextDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class ConversationContextService {
-    
-    // In-memory storage for conversation contexts
-    // In production, you might want to use Redis or database
-    private final Map<String, ConversationContextDTO> conversationContexts = new ConcurrentHashMap<>();
-    
-    // Context expiry time (30 minutes)
-    private static final long CONTEXT_EXPIRY_MINUTES = 30;
+
+    // Storage for conversation contexts: in memory by default, or shared through the database
+    // when the backend runs on several nodes (see ConversationContextStore)
+    @Autowired
+    private ConversationContextStore contextStore;
+
+    @Autowired
+    private ConversationHistoryPolicy historyPolicy;
+
+    @Autowired
+    private ChatHistoryWriter historyWriter;
 
     public ConversationContextDTO getOrCreateContext(String sessionId) {
-        ConversationContextDTO context = conversationContexts.get(sessionId);
-        
-        if (context == null) {
-            context = new ConversationContextDTO(sessionId);
-            conversationContexts.put(sessionId, context);
-        } else {
-            // Check if context has expired
-            if (isContextExpired(context)) {
-                context = new ConversationContextDTO(sessionId);
-                conversationContexts.put(sessionId, context);
-            }
-        }
-        
-        return context;
+        return contextStore.getOrCreate(sessionId);
     }
 
     public void updateContext(ConversationContextDTO context) {
         context.setLastInteraction(LocalDateTime.now());
-        conversationContexts.put(context.getSessionId(), context);
+        contextStore.save(context);
     }
 
     public void clearContext(String sessionId) {
-        conversationContexts.remove(sessionId);
+        contextStore.remove(sessionId);
     }
 
     public void addMessageToHistory(String sessionId, String userMessage, String botResponse) {
         ConversationContextDTO context = getOrCreateContext(sessionId);
-        context.addToHistory("User: " + userMessage);
-        context.addToHistory("Bot: " + botResponse);
+        historyPolicy.append(context, "User: " + userMessage);
+        historyPolicy.append(context, "Bot: " + botResponse);
         updateContext(context);
+
+        // Durable copy of the full turn, written in the background
+        historyWriter.enqueue(context.getUserId(), userMessage, botResponse, messageType(context.getCurrentIntent()));
     }
 
     public boolean hasActiveContext(String sessionId) {
-        ConversationContextDTO context = conversationContexts.get(sessionId);
-        return context != null && !isContextExpired(context) && !context.isComplete();
+        ConversationContextDTO context = contextStore.find(sessionId);
+        return context != null && !context.isComplete();
     }
 
     public String getConversationHistory(String sessionId) {
-        ConversationContextDTO context = conversationContexts.get(sessionId);
+        ConversationContextDTO context = contextStore.find(sessionId);
         if (context != null) {
             return context.getFullConversationHistory();
         }
         return "";
     }
 
-    private boolean isContextExpired(ConversationContextDTO context) {
-        return context.getLastInteraction()
-                .isBefore(LocalDateTime.now().minusMinutes(CONTEXT_EXPIRY_MINUTES));
-    }
-
     public void markContextComplete(String sessionId) {
-        ConversationContextDTO context = conversationContexts.get(sessionId);
+        ConversationContextDTO context = contextStore.find(sessionId);
         if (context != null) {
             context.setComplete(true);
             updateContext(context);
@@ -90,8 +79,26 @@ public class ConversationContextService {
     }
 
     // Clean up expired contexts periodically
+    @Scheduled(fixedDelayString = "${chatbot.context.sweep-interval-ms:60000}")
     public void cleanExpiredContexts() {
-        conversationContexts.entrySet().removeIf(entry -> 
-            isContextExpired(entry.getValue()));
+        contextStore.removeExpired();
+    }
+
+    private static String messageType(String intent) {
+        if (intent == null) {
+            return "GENERAL";
+        }
+        switch (intent.toLowerCase()) {
+            case "create_task":
+                return "TASK_CREATION";
+            case "view_tasks":
+                return "SCHEDULE_QUERY";
+            case "edit_task":
+                return "TASK_UPDATE";
+            case "delete_task":
+                return "TASK_DELETION";
+            default:
+                return "GENERAL";
+        }
     }
-}
\ No newline at end of file
+}
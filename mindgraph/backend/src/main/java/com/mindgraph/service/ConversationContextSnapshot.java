@@ -0,0 +1,218 @@
+package com.mindgraph.service;
+
+import com.mindgraph.dto.ConversationContextDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Snapshot of live conversation contexts in a memory-mapped file, so a restart does not drop
+// half-finished multi-turn conversations.
+// File layout: magic, format version, record count, write time, then one record per session
+// as int length + ConversationContextCodec bytes. On startup the file is mapped and only the
+// sessionId and lastInteraction of each record are read to build an index; a record is
+// decoded the first time its session is asked for. Sessions not yet asked for are copied as
+// raw bytes into the next snapshot, so they survive several restarts in a row.
+@Component
+@ConditionalOnProperty(name = "chatbot.context.store", havingValue = "memory", matchIfMissing = true)
+public class ConversationContextSnapshot {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConversationContextSnapshot.class);
+
+    private static final int MAGIC = 0x4D47_4353; // "MGCS"
+    private static final short VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 2 + 4 + 8;
+
+    @Autowired
+    private ConversationContextCodec codec;
+
+    private final boolean enabled;
+    private final Path path;
+    private final int historyLines;
+
+    private final Object lock = new Object();
+
+    // Guarded by lock: the previous snapshot and the records in it nobody has asked for yet
+    private ByteBuffer loaded;
+    private final Map<String, Record> unrestored = new HashMap<>();
+
+    private final Counter restored;
+    private final Timer writeTimer;
+
+    public ConversationContextSnapshot(@Value("${chatbot.context.snapshot.enabled:true}") boolean enabled,
+                                       @Value("${chatbot.context.snapshot.path:data/context-snapshot.bin}") String path,
+                                       @Value("${chatbot.context.snapshot.history-lines:10}") int historyLines,
+                                       MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.path = Paths.get(path);
+        this.historyLines = historyLines;
+
+        this.restored = Counter.builder("chatbot.context.snapshot.restored").register(meterRegistry);
+        this.writeTimer = Timer.builder("chatbot.context.snapshot.write").register(meterRegistry);
+        Gauge.builder("chatbot.context.snapshot.unrestored", this, ConversationContextSnapshot::unrestoredCount)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void load() {
+        if (!enabled || !Files.isRegularFile(path)) {
+            return;
+        }
+        long started = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed and after the file is replaced
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+                logger.warn("Ignoring {}: not a context snapshot", path);
+                return;
+            }
+            short version = buffer.getShort();
+            if (version != VERSION) {
+                logger.warn("Ignoring {}: snapshot format version {} is not supported", path, version);
+                return;
+            }
+            int count = buffer.getInt();
+            buffer.getLong();
+
+            Map<String, Record> index = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                int length = buffer.getInt();
+                int offset = buffer.position();
+                ByteBuffer record = buffer.slice(offset, length);
+                String sessionId = codec.readSessionId(record);
+                index.put(sessionId, new Record(offset, length, record.getLong()));
+                buffer.position(offset + length);
+            }
+            synchronized (lock) {
+                loaded = buffer;
+                unrestored.putAll(index);
+            }
+            logger.info("Indexed {} conversation context(s) from {} in {} ms", count, path,
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not read context snapshot {}, starting empty", path, e);
+        }
+    }
+
+    // Decodes the session from the startup snapshot, once; null if absent or older than maxAge
+    public ConversationContextDTO restore(String sessionId, Duration maxAge) {
+        if (!enabled) {
+            return null;
+        }
+        synchronized (lock) {
+            Record record = unrestored.remove(sessionId);
+            if (record == null || record.isOlderThan(maxAge)) {
+                return null;
+            }
+            restored.increment();
+            return codec.decode(loaded.slice(record.offset, record.length));
+        }
+    }
+
+    public void write(Collection<ConversationContextDTO> live, Duration maxAge) {
+        if (!enabled) {
+            return;
+        }
+        writeTimer.record(() -> {
+            List<byte[]> records = new ArrayList<>(live.size());
+            Set<String> liveIds = new HashSet<>();
+            for (ConversationContextDTO context : live) {
+                try {
+                    records.add(codec.encode(context, historyLines));
+                    liveIds.add(context.getSessionId());
+                } catch (RuntimeException e) {
+                    // A turn was mutating this context; it will be in the next snapshot
+                    logger.debug("Skipping context {} in snapshot", context.getSessionId(), e);
+                }
+            }
+            synchronized (lock) {
+                for (Map.Entry<String, Record> entry : unrestored.entrySet()) {
+                    Record record = entry.getValue();
+                    if (!liveIds.contains(entry.getKey()) && !record.isOlderThan(maxAge)) {
+                        byte[] raw = new byte[record.length];
+                        loaded.get(record.offset, raw);
+                        records.add(raw);
+                    }
+                }
+            }
+            try {
+                writeFile(records);
+            } catch (IOException e) {
+                logger.error("Failed to write context snapshot {}", path, e);
+            }
+        });
+    }
+
+    public int unrestoredCount() {
+        synchronized (lock) {
+            return unrestored.size();
+        }
+    }
+
+    // Written to a temporary file and moved into place, so a crash mid-write keeps the old one
+    private void writeFile(List<byte[]> records) throws IOException {
+        long size = HEADER_BYTES;
+        for (byte[] record : records) {
+            size += 4 + record.length;
+        }
+        if (path.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC);
+            buffer.putShort(VERSION);
+            buffer.putInt(records.size());
+            buffer.putLong(System.currentTimeMillis());
+            for (byte[] record : records) {
+                buffer.putInt(record.length);
+                buffer.put(record);
+            }
+            buffer.force();
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static final class Record {
+        private final int offset;
+        private final int length;
+        private final long lastInteractionMillis;
+
+        Record(int offset, int length, long lastInteractionMillis) {
+            this.offset = offset;
+            this.length = length;
+            this.lastInteractionMillis = lastInteractionMillis;
+        }
+
+        boolean isOlderThan(Duration maxAge) {
+            return System.currentTimeMillis() - lastInteractionMillis > maxAge.toMillis();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.mindgraph.service;
+
+import com.mindgraph.dto.ConversationContextDTO;
+
+// Where ConversationContextService keeps conversation contexts. Selected with
+// chatbot.context.store: "memory" (default, single node) or "jdbc" (shared through Postgres,
+// so any backend node can serve any session).
+public interface ConversationContextStore {
+
+    // Context expiry time (30 minutes since the last update)
+    long CONTEXT_EXPIRY_MINUTES = 30;
+
+    // The live context for the session, or null if there is none or it has expired
+    ConversationContextDTO find(String sessionId);
+
+    // The live context, or a new empty one, which is stored right away
+    ConversationContextDTO getOrCreate(String sessionId);
+
+    // Stores the context and restarts its expiry
+    void save(ConversationContextDTO context);
+
+    void remove(String sessionId);
+
+    void removeExpired();
+}
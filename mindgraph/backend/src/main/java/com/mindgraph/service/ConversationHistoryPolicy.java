@@ -0,0 +1,150 @@
+package com.mindgraph.service;
+
+import com.mindgraph.dto.ConversationContextDTO;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+// Keeps the conversation history that goes into prompts bounded.
+// - Window: prompts get the summary plus only the newest lines that fit a token budget.
+// - Compaction: once the history grows past a number of lines, the oldest ones are folded into
+//   a short summary stored on the context, so it is built once and reused on every turn.
+// - Cap: a session's history never holds more than a fixed number of bytes.
+// Tokens are estimated as characters / 4, which is close enough for English prompts.
+@Component
+public class ConversationHistoryPolicy {
+
+    private static final int CHARS_PER_TOKEN = 4;
+    private static final int SNIPPET_CHARS = 80;
+
+    private final int windowTokens;
+    private final int compactAfterLines;
+    private final int keepRecentLines;
+    private final int summaryMaxChars;
+    private final int maxLineChars;
+    private final int maxHistoryBytes;
+
+    private final DistributionSummary historyTokens;
+
+    public ConversationHistoryPolicy(@Value("${chatbot.history.window-tokens:600}") int windowTokens,
+                                     @Value("${chatbot.history.compact-after-lines:12}") int compactAfterLines,
+                                     @Value("${chatbot.history.keep-recent-lines:6}") int keepRecentLines,
+                                     @Value("${chatbot.history.summary-max-chars:600}") int summaryMaxChars,
+                                     @Value("${chatbot.history.max-line-chars:1000}") int maxLineChars,
+                                     @Value("${chatbot.history.max-bytes:16384}") int maxHistoryBytes,
+                                     MeterRegistry meterRegistry) {
+        this.windowTokens = windowTokens;
+        this.compactAfterLines = compactAfterLines;
+        this.keepRecentLines = Math.min(keepRecentLines, compactAfterLines);
+        this.summaryMaxChars = summaryMaxChars;
+        this.maxLineChars = maxLineChars;
+        this.maxHistoryBytes = maxHistoryBytes;
+
+        this.historyTokens = DistributionSummary.builder("chatbot.prompt.history.tokens")
+                .description("Estimated tokens of conversation history included in a prompt")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public static int estimateTokens(String text) {
+        return text == null ? 0 : (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+
+    // Appends one line and keeps the stored history within the compaction and byte limits
+    public void append(ConversationContextDTO context, String line) {
+        if (line.length() > maxLineChars) {
+            line = line.substring(0, maxLineChars) + "…";
+        }
+        context.addToHistory(line);
+
+        List<String> history = context.getConversationHistory();
+        if (history.size() > compactAfterLines) {
+            compact(context, history.size() - keepRecentLines);
+        }
+
+        // Hard cap: drop the oldest lines outright (they were already summarized or are huge)
+        while (history.size() > 1 && historyBytes(context) > maxHistoryBytes) {
+            history.remove(0);
+        }
+    }
+
+    // History text for a prompt: the summary of older turns, then the newest lines within budget
+    public String promptHistory(ConversationContextDTO context) {
+        List<String> history = context.getConversationHistory();
+        int budget = windowTokens * CHARS_PER_TOKEN;
+
+        String summary = context.getHistorySummary();
+        if (summary != null) {
+            budget -= summary.length();
+        }
+
+        Deque<String> window = new ArrayDeque<>();
+        for (int i = history.size() - 1; i >= 0; i--) {
+            String line = history.get(i);
+            // Always keep the latest line so a follow-up answer has its question
+            if (!window.isEmpty() && line.length() + 1 > budget) {
+                break;
+            }
+            window.addFirst(line);
+            budget -= line.length() + 1;
+        }
+
+        StringBuilder text = new StringBuilder();
+        if (summary != null) {
+            text.append("Earlier in this conversation the user said: ").append(summary).append("\n");
+        }
+        text.append(String.join("\n", window));
+
+        historyTokens.record(estimateTokens(text.toString()));
+        return text.toString();
+    }
+
+    // Folds the oldest lines into the rolling summary. Only the user's side is kept, shortened:
+    // bot lines are mostly task listings and confirmations that are recoverable from the database.
+    private void compact(ConversationContextDTO context, int count) {
+        List<String> history = context.getConversationHistory();
+        StringBuilder summary = new StringBuilder(context.getHistorySummary() != null ? context.getHistorySummary() : "");
+
+        for (int i = 0; i < count; i++) {
+            String line = history.get(i);
+            if (!line.startsWith("User: ")) {
+                continue;
+            }
+            String said = line.substring("User: ".length()).trim();
+            if (said.length() > SNIPPET_CHARS) {
+                said = said.substring(0, SNIPPET_CHARS) + "…";
+            }
+            if (summary.length() > 0) {
+                summary.append("; ");
+            }
+            summary.append('"').append(said).append('"');
+        }
+        history.subList(0, count).clear();
+
+        // Oldest snippets go first when the summary outgrows its budget
+        while (summary.length() > summaryMaxChars) {
+            int cut = summary.indexOf("; ");
+            if (cut < 0) {
+                summary.setLength(summaryMaxChars);
+                break;
+            }
+            summary.delete(0, cut + 2);
+        }
+        context.setHistorySummary(summary.length() > 0 ? summary.toString() : null);
+    }
+
+    private static int historyBytes(ConversationContextDTO context) {
+        int bytes = context.getHistorySummary() != null
+                ? context.getHistorySummary().getBytes(StandardCharsets.UTF_8).length : 0;
+        for (String line : context.getConversationHistory()) {
+            bytes += line.getBytes(StandardCharsets.UTF_8).length + 1;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,44 @@
+package com.mindgraph.service;
+
+import com.mindgraph.entity.UserPreference;
+
+// A user's energy level (1-5) by time of day: morning until noon, afternoon until 17:00,
+// evening after that. Times are minutes since midnight.
+final class EnergyProfile {
+
+    static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int NOON = 12 * 60;
+    private static final int EVENING = 17 * 60;
+    private static final int DEFAULT_LEVEL = 3;
+
+    private final int morning;
+    private final int afternoon;
+    private final int evening;
+
+    EnergyProfile(UserPreference preference) {
+        this.morning = levelOrDefault(preference.getMorningEnergyLevel());
+        this.afternoon = levelOrDefault(preference.getAfternoonEnergyLevel());
+        this.evening = levelOrDefault(preference.getEveningEnergyLevel());
+    }
+
+    int levelAt(int minute) {
+        return minute < NOON ? morning : minute < EVENING ? afternoon : evening;
+    }
+
+    // Average level over [start, end)
+    double average(int start, int end) {
+        int morningMinutes = overlap(start, end, 0, NOON);
+        int afternoonMinutes = overlap(start, end, NOON, EVENING);
+        int eveningMinutes = overlap(start, end, EVENING, MINUTES_PER_DAY);
+        return (double) (morningMinutes * morning + afternoonMinutes * afternoon + eveningMinutes * evening)
+                / (end - start);
+    }
+
+    private static int overlap(int start, int end, int from, int to) {
+        return Math.max(0, Math.min(end, to) - Math.max(start, from));
+    }
+
+    private static int levelOrDefault(Integer level) {
+        return level != null ? level : DEFAULT_LEVEL;
+    }
+}
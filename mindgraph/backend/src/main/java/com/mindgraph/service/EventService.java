@@ -0,0 +1,129 @@
+package com.mindgraph.service;
+
+import com.mindgraph.dto.EventDTO;
+import com.mindgraph.entity.Event;
+import com.mindgraph.entity.EventType;
+import com.mindgraph.entity.User;
+import com.mindgraph.repository.EventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Service
+public class EventService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventService.class);
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private RecurrenceExpander recurrenceExpander;
+
+    // Keeps ScheduleConflictService's and RecurrenceExpander's in-memory state current
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Hands each event overlapping [start, end) to the consumer as its row arrives, so a month
+    // of a busy calendar is never held in memory. The transaction keeps the cursor open.
+    // Occurrences of recurring series are merged in by start time as they are expanded.
+    @Transactional(readOnly = true)
+    public void forEachEventInRange(User user, LocalDateTime start, LocalDateTime end, Consumer<EventDTO> consumer) {
+        if (!end.isAfter(start)) {
+            throw new IllegalArgumentException("Range end must be after its start");
+        }
+        Iterator<EventDTO> occurrences = recurrenceExpander.occurrences(user.getId(), start, end);
+        try (Stream<EventDTO> events = eventRepository.streamOverlapping(user.getId(), start, end)) {
+            if (!occurrences.hasNext()) {
+                events.forEach(consumer);
+                return;
+            }
+            Iterator<EventDTO> singles = events.iterator();
+            EventDTO occurrence = occurrences.next();
+            EventDTO single = singles.hasNext() ? singles.next() : null;
+            while (occurrence != null || single != null) {
+                if (single == null || (occurrence != null && occurrence.getStartTime().isBefore(single.getStartTime()))) {
+                    consumer.accept(occurrence);
+                    occurrence = occurrences.hasNext() ? occurrences.next() : null;
+                } else {
+                    consumer.accept(single);
+                    single = singles.hasNext() ? singles.next() : null;
+                }
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void forEachEvent(User user, Consumer<EventDTO> consumer) {
+        try (Stream<EventDTO> events = eventRepository.streamByUserId(user.getId())) {
+            events.forEach(consumer);
+        }
+    }
+
+    public Optional<EventDTO> getEventForUser(Long id, User user) {
+        return eventRepository.findByIdAndUserId(id, user.getId()).map(this::toDTO);
+    }
+
+    @Transactional
+    public EventDTO createEventForUser(EventDTO request, User user) {
+        Event event = new Event();
+        event.setUser(user);
+        applyRequest(request, event);
+        Event saved = eventRepository.save(event);
+        eventPublisher.publishEvent(ScheduleChangedEvent.of(saved));
+        logger.info("Event created: {} (ID: {})", saved.getTitle(), saved.getId());
+        return toDTO(saved);
+    }
+
+    @Transactional
+    public Optional<EventDTO> updateEventForUser(Long id, EventDTO request, User user) {
+        return eventRepository.findByIdAndUserId(id, user.getId()).map(event -> {
+            applyRequest(request, event);
+            Event saved = eventRepository.save(event);
+            eventPublisher.publishEvent(ScheduleChangedEvent.of(saved));
+            return toDTO(saved);
+        });
+    }
+
+    @Transactional
+    public boolean deleteEventForUser(Long id, User user) {
+        Optional<Event> event = eventRepository.findByIdAndUserId(id, user.getId());
+        event.ifPresent(found -> {
+            eventRepository.delete(found);
+            eventPublisher.publishEvent(ScheduleChangedEvent.removed(user.getId(), ScheduleChangedEvent.EVENT, id));
+        });
+        return event.isPresent();
+    }
+
+    private void applyRequest(EventDTO request, Event event) {
+        if (!request.getEndTime().isAfter(request.getStartTime())) {
+            throw new IllegalArgumentException("Event end time must be after its start time");
+        }
+        event.setTitle(request.getTitle());
+        event.setDescription(request.getDescription());
+        event.setStartTime(request.getStartTime());
+        event.setEndTime(request.getEndTime());
+        event.setType(request.getType() != null ? request.getType() : EventType.OTHER);
+        event.setLocation(request.getLocation());
+        event.setIsAllDay(Boolean.TRUE.equals(request.getIsAllDay()));
+        event.setIsRecurring(Boolean.TRUE.equals(request.getIsRecurring()));
+        event.setRecurrencePattern(request.getRecurrencePattern());
+        event.setReminderMinutesBefore(request.getReminderMinutesBefore());
+    }
+
+    private EventDTO toDTO(Event event) {
+        return new EventDTO(event.getId(), event.getTitle(), event.getDescription(), event.getStartTime(),
+                event.getEndTime(), event.getType(), event.getLocation(), event.getIsAllDay(), event.getIsRecurring(),
+                event.getRecurrencePattern(), event.getReminderMinutesBefore(), event.getCreatedAt(),
+                event.getUpdatedAt());
+    }
+}
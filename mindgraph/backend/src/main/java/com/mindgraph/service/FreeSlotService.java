@@ -0,0 +1,200 @@
+package com.mindgraph.service;
+
+import com.mindgraph.dto.AvailableSlotDTO;
+import com.mindgraph.dto.ScheduleConflictDTO;
+import com.mindgraph.entity.UserPreference;
+import com.mindgraph.repository.UserPreferenceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Finds free slots of a given length on one day. The day's busy items come from
+// ScheduleConflictService already in start order, so one pass merges them into busy runs and
+// walks the gaps between runs; no sorting and no database reads beyond the user's preferences.
+//
+// Within the preferred work hours, a slot keeps bufferTimeMinutes away from busy time. When the
+// work run next to it plus the slot would exceed maxContinuousWorkMinutes, it keeps
+// preferredBreakDurationMinutes away instead. Candidates inside each gap are placed on a fixed
+// step, scored by the user's energy level for the minutes they cover, and the best
+// non-overlapping ones are returned.
+@Service
+public class FreeSlotService {
+
+    private static final int MINUTES_PER_DAY = EnergyProfile.MINUTES_PER_DAY;
+
+    @Autowired
+    private ScheduleConflictService conflictService;
+
+    @Autowired
+    private UserPreferenceRepository userPreferenceRepository;
+
+    private final int stepMinutes;
+    private final LocalTime defaultWorkStart;
+    private final LocalTime defaultWorkEnd;
+
+    public FreeSlotService(@Value("${schedule.available.step-minutes:15}") int stepMinutes,
+                           @Value("${schedule.available.default-work-start:09:00}") String defaultWorkStart,
+                           @Value("${schedule.available.default-work-end:17:00}") String defaultWorkEnd) {
+        this.stepMinutes = stepMinutes;
+        this.defaultWorkStart = LocalTime.parse(defaultWorkStart);
+        this.defaultWorkEnd = LocalTime.parse(defaultWorkEnd);
+    }
+
+    // Up to limit free slots of durationMinutes on date, best first. Nothing before now is offered.
+    // excludeTaskId (may be null) is a task being moved, whose current time counts as free.
+    public List<AvailableSlotDTO> findAvailableSlots(Long userId, LocalDate date, int durationMinutes, int limit,
+                                                     Long excludeTaskId, LocalDateTime now) {
+        if (durationMinutes <= 0 || durationMinutes > MINUTES_PER_DAY) {
+            throw new IllegalArgumentException("Duration must be between 1 and " + MINUTES_PER_DAY + " minutes");
+        }
+        UserPreference preference = userPreferenceRepository.findByUserId(userId).orElseGet(UserPreference::new);
+        LocalDateTime dayStart = date.atStartOfDay();
+
+        int workStart = minuteOfDay(preference.getPreferredWorkStartTime() != null
+                ? preference.getPreferredWorkStartTime() : defaultWorkStart);
+        int workEnd = minuteOfDay(preference.getPreferredWorkEndTime() != null
+                ? preference.getPreferredWorkEndTime() : defaultWorkEnd);
+        if (workEnd <= workStart) {
+            // An end of midnight (or earlier than the start) means work runs to the end of the day
+            workEnd = MINUTES_PER_DAY;
+        }
+        if (now.toLocalDate().isAfter(date)) {
+            return List.of();
+        }
+        if (now.toLocalDate().equals(date)) {
+            workStart = Math.max(workStart, minuteOfDay(now.toLocalTime()) + 1);
+        }
+        if (workEnd - workStart < durationMinutes) {
+            return List.of();
+        }
+
+        SlotRules rules = new SlotRules(preference, durationMinutes);
+        List<ScheduleConflictDTO> busy = conflictService.findConflicts(userId, dayStart, dayStart.plusDays(1),
+                ScheduleChangedEvent.TASK, excludeTaskId);
+
+        // Gap scan: the previous closed run, and the run currently being extended
+        List<Candidate> candidates = new ArrayList<>();
+        int previousEnd = workStart;
+        int previousLength = 0;
+        int runStart = -1;
+        int runEnd = -1;
+        for (ScheduleConflictDTO item : busy) {
+            int start = clampedMinute(dayStart, item.getStartTime());
+            int end = clampedMinute(dayStart, item.getEndTime());
+            if (runStart >= 0 && start <= runEnd) {
+                runEnd = Math.max(runEnd, end);
+                continue;
+            }
+            if (runStart >= 0) {
+                addCandidates(candidates, rules, previousEnd, previousLength, runStart, runEnd - runStart,
+                        workStart, workEnd);
+                previousEnd = runEnd;
+                previousLength = runEnd - runStart;
+            }
+            runStart = start;
+            runEnd = end;
+        }
+        if (runStart >= 0) {
+            addCandidates(candidates, rules, previousEnd, previousLength, runStart, runEnd - runStart,
+                    workStart, workEnd);
+            previousEnd = runEnd;
+            previousLength = runEnd - runStart;
+        }
+        addCandidates(candidates, rules, previousEnd, previousLength, workEnd, 0, workStart, workEnd);
+
+        // At most MINUTES_PER_DAY / stepMinutes candidates, whatever the number of busy items
+        candidates.sort(Comparator.comparingDouble((Candidate c) -> -c.energy).thenComparingInt(c -> c.start));
+        List<AvailableSlotDTO> slots = new ArrayList<>(limit);
+        List<Candidate> chosen = new ArrayList<>(limit);
+        for (Candidate candidate : candidates) {
+            if (chosen.size() == limit) {
+                break;
+            }
+            if (chosen.stream().noneMatch(other -> other.start < candidate.start + durationMinutes
+                    && candidate.start < other.start + durationMinutes)) {
+                chosen.add(candidate);
+                slots.add(new AvailableSlotDTO(dayStart.plusMinutes(candidate.start),
+                        dayStart.plusMinutes(candidate.start + durationMinutes), candidate.energy));
+            }
+        }
+        return slots;
+    }
+
+    // Candidates in the gap between a run ending at previousEnd and one starting at nextStart,
+    // clipped to the work hours. A run length of 0 is a work-hours boundary and needs no spacing.
+    private void addCandidates(List<Candidate> out, SlotRules rules, int previousEnd, int previousLength,
+                               int nextStart, int nextLength, int workStart, int workEnd) {
+        int from = Math.max(workStart, previousEnd + rules.spacing(previousLength));
+        int to = Math.min(workEnd, nextStart - rules.spacing(nextLength));
+        if (to - from < rules.duration) {
+            return;
+        }
+        int start = (from + stepMinutes - 1) / stepMinutes * stepMinutes;
+        if (start + rules.duration > to) {
+            // The gap fits the slot, just not on the step
+            start = from;
+        }
+        for (; start + rules.duration <= to; start += stepMinutes) {
+            out.add(new Candidate(start, rules.energy(start, start + rules.duration)));
+        }
+    }
+
+    private static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private static int clampedMinute(LocalDateTime dayStart, LocalDateTime time) {
+        long minutes = Duration.between(dayStart, time).toMinutes();
+        return (int) Math.max(0, Math.min(MINUTES_PER_DAY, minutes));
+    }
+
+    private static int orDefault(Integer value, int fallback) {
+        return value != null ? value : fallback;
+    }
+
+    private static final class SlotRules {
+        private final int duration;
+        private final int buffer;
+        private final int breakMinutes;
+        private final int maxContinuous;
+        private final EnergyProfile energyProfile;
+
+        SlotRules(UserPreference preference, int duration) {
+            this.duration = duration;
+            this.buffer = orDefault(preference.getBufferTimeMinutes(), 0);
+            this.breakMinutes = Math.max(buffer, orDefault(preference.getPreferredBreakDurationMinutes(), 0));
+            this.maxContinuous = orDefault(preference.getMaxContinuousWorkMinutes(), Integer.MAX_VALUE);
+            this.energyProfile = new EnergyProfile(preference);
+        }
+
+        // Distance to keep from a busy run of the given length
+        int spacing(int runLength) {
+            if (runLength == 0) {
+                return 0;
+            }
+            return (long) runLength + duration > maxContinuous ? breakMinutes : buffer;
+        }
+
+        double energy(int start, int end) {
+            return energyProfile.average(start, end);
+        }
+    }
+
+    private static final class Candidate {
+        private final int start;
+        private final double energy;
+
+        Candidate(int start, double energy) {
+            this.start = start;
+            this.energy = energy;
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.mindgraph.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Admission control for outgoing Gemini calls.
+// An AIMD concurrency limit grows by about one slot per round of successful calls while it is in
+// use and is cut multiplicatively when a call fails or takes longer than the slow-call threshold.
+// A circuit breaker watches a sliding window of recent calls and opens when the failure or
+// slow-call rate crosses its threshold; while open, calls are rejected immediately, and after
+// the open duration a few probe calls decide whether it closes again.
+// Rejected calls fail with GeminiUnavailableException instead of waiting on a struggling API.
+@Component
+public class GeminiCallGuard {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeminiCallGuard.class);
+
+    // Ordinal is the value of the gemini.breaker.state gauge
+    enum State { CLOSED, HALF_OPEN, OPEN }
+
+    private final boolean enabled;
+    private final double minLimit;
+    private final double maxLimit;
+    private final double backoffRatio;
+    private final long slowCallNanos;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long openNanos;
+    private final int halfOpenCalls;
+
+    private final Object lock = new Object();
+
+    // All mutable state below is guarded by lock
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int probesLeft;
+    private int probeSuccesses;
+    private double limit;
+    private int inFlight;
+
+    // Sliding window of the last outcomes while closed
+    private final boolean[] failedCalls;
+    private final boolean[] slowCalls;
+    private int windowNext;
+    private int windowCount;
+    private int windowFailures;
+    private int windowSlow;
+
+    private final Counter rejectedOpen;
+    private final Counter rejectedLimit;
+
+    public GeminiCallGuard(@Value("${gemini.guard.enabled:true}") boolean enabled,
+                           @Value("${gemini.guard.limit.initial:20}") int initialLimit,
+                           @Value("${gemini.guard.limit.min:2}") int minLimit,
+                           @Value("${gemini.guard.limit.max:100}") int maxLimit,
+                           @Value("${gemini.guard.limit.backoff-ratio:0.7}") double backoffRatio,
+                           @Value("${gemini.guard.slow-call-duration:8s}") Duration slowCallDuration,
+                           @Value("${gemini.guard.breaker.window-size:20}") int windowSize,
+                           @Value("${gemini.guard.breaker.minimum-calls:10}") int minimumCalls,
+                           @Value("${gemini.guard.breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+                           @Value("${gemini.guard.breaker.slow-call-rate-threshold:0.8}") double slowCallRateThreshold,
+                           @Value("${gemini.guard.breaker.open-duration:30s}") Duration openDuration,
+                           @Value("${gemini.guard.breaker.half-open-calls:3}") int halfOpenCalls,
+                           MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.slowCallNanos = slowCallDuration.toNanos();
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+        this.failedCalls = new boolean[windowSize];
+        this.slowCalls = new boolean[windowSize];
+
+        this.rejectedOpen = Counter.builder("gemini.guard.rejections").tag("reason", "breaker_open").register(meterRegistry);
+        this.rejectedLimit = Counter.builder("gemini.guard.rejections").tag("reason", "limit").register(meterRegistry);
+        Gauge.builder("gemini.breaker.state", this, guard -> guard.getState().ordinal()).register(meterRegistry);
+        Gauge.builder("gemini.limiter.limit", this, GeminiCallGuard::getLimit).register(meterRegistry);
+        Gauge.builder("gemini.limiter.inflight", this, GeminiCallGuard::getInFlight).register(meterRegistry);
+    }
+
+    public <T> Mono<T> protect(Mono<T> call) {
+        if (!enabled) {
+            return call;
+        }
+        return Mono.defer(() -> {
+            Permit permit = acquire();
+            return call
+                    .doOnSuccess(value -> permit.success())
+                    .doOnError(permit::failure)
+                    .doOnCancel(permit::cancel);
+        });
+    }
+
+    // For streams the latency is the time to the first element, not to the end of the reply
+    public <T> Flux<T> protect(Flux<T> call) {
+        if (!enabled) {
+            return call;
+        }
+        return Flux.defer(() -> {
+            Permit permit = acquire();
+            return call
+                    .doOnNext(value -> permit.firstSignal())
+                    .doOnComplete(permit::success)
+                    .doOnError(permit::failure)
+                    .doOnCancel(permit::cancel);
+        });
+    }
+
+    public State getState() {
+        synchronized (lock) {
+            return state;
+        }
+    }
+
+    public double getLimit() {
+        synchronized (lock) {
+            return limit;
+        }
+    }
+
+    public int getInFlight() {
+        synchronized (lock) {
+            return inFlight;
+        }
+    }
+
+    private Permit acquire() {
+        synchronized (lock) {
+            if (state == State.OPEN) {
+                if (System.nanoTime() - openedAt < openNanos) {
+                    rejectedOpen.increment();
+                    throw new GeminiUnavailableException("Gemini circuit breaker is open");
+                }
+                transitionTo(State.HALF_OPEN);
+            }
+            if (inFlight >= (int) limit) {
+                rejectedLimit.increment();
+                throw new GeminiUnavailableException("Gemini concurrency limit of " + (int) limit + " reached");
+            }
+            boolean probe = state == State.HALF_OPEN;
+            if (probe) {
+                if (probesLeft == 0) {
+                    rejectedOpen.increment();
+                    throw new GeminiUnavailableException("Gemini circuit breaker is half-open");
+                }
+                probesLeft--;
+            }
+            inFlight++;
+            return new Permit(probe);
+        }
+    }
+
+    private void onComplete(boolean probe, boolean failed, boolean slow) {
+        synchronized (lock) {
+            inFlight--;
+
+            // AIMD: only grow while the limit is actually being used, so idle periods do not inflate it
+            if (failed || slow) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (inFlight + 1 >= limit / 2) {
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+
+            if (probe) {
+                if (state != State.HALF_OPEN) {
+                    return;
+                }
+                if (failed || slow) {
+                    transitionTo(State.OPEN);
+                } else if (++probeSuccesses >= halfOpenCalls) {
+                    transitionTo(State.CLOSED);
+                }
+            } else if (state == State.CLOSED) {
+                record(failed, slow);
+                if (windowCount >= minimumCalls
+                        && ((double) windowFailures / windowCount >= failureRateThreshold
+                        || (double) windowSlow / windowCount >= slowCallRateThreshold)) {
+                    transitionTo(State.OPEN);
+                }
+            }
+        }
+    }
+
+    private void onCancel(boolean probe) {
+        synchronized (lock) {
+            inFlight--;
+            // A cancelled probe proved nothing; let another caller try
+            if (probe && state == State.HALF_OPEN) {
+                probesLeft++;
+            }
+        }
+    }
+
+    private void record(boolean failed, boolean slow) {
+        if (windowCount == failedCalls.length) {
+            windowFailures -= failedCalls[windowNext] ? 1 : 0;
+            windowSlow -= slowCalls[windowNext] ? 1 : 0;
+        } else {
+            windowCount++;
+        }
+        failedCalls[windowNext] = failed;
+        slowCalls[windowNext] = slow;
+        windowFailures += failed ? 1 : 0;
+        windowSlow += slow ? 1 : 0;
+        windowNext = (windowNext + 1) % failedCalls.length;
+    }
+
+    private void transitionTo(State next) {
+        logger.warn("Gemini circuit breaker {} -> {} (failures {}/{}, slow {}/{}, limit {})",
+                state, next, windowFailures, windowCount, windowSlow, windowCount, (int) limit);
+        state = next;
+        windowNext = 0;
+        windowCount = 0;
+        windowFailures = 0;
+        windowSlow = 0;
+        if (next == State.OPEN) {
+            openedAt = System.nanoTime();
+        } else if (next == State.HALF_OPEN) {
+            probesLeft = halfOpenCalls;
+            probeSuccesses = 0;
+        }
+    }
+
+    // Client errors say nothing about Gemini's health, except rate limiting
+    private static boolean countsAsFailure(Throwable error) {
+        if (error instanceof WebClientResponseException) {
+            WebClientResponseException response = (WebClientResponseException) error;
+            return response.getStatusCode().is5xxServerError() || response.getStatusCode().value() == 429;
+        }
+        return true;
+    }
+
+    private final class Permit {
+        private final boolean probe;
+        private final long start = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+        private volatile long firstSignalAt;
+
+        Permit(boolean probe) {
+            this.probe = probe;
+        }
+
+        void firstSignal() {
+            if (firstSignalAt == 0) {
+                firstSignalAt = System.nanoTime();
+            }
+        }
+
+        void success() {
+            if (released.compareAndSet(false, true)) {
+                onComplete(probe, false, latency() >= slowCallNanos);
+            }
+        }
+
+        void failure(Throwable error) {
+            if (released.compareAndSet(false, true)) {
+                onComplete(probe, countsAsFailure(error), latency() >= slowCallNanos);
+            }
+        }
+
+        void cancel() {
+            if (released.compareAndSet(false, true)) {
+                onCancel(probe);
+            }
+        }
+
+        private long latency() {
+            long end = firstSignalAt != 0 ? firstSignalAt : System.nanoTime();
+            return end - start;
+        }
+    }
+}
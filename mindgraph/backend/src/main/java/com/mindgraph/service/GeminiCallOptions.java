@@ -0,0 +1,51 @@
+package com.mindgraph.service;
+
+import java.time.Duration;
+
+// Per-call-site settings for GeminiService. Call sites opt in to behaviour that is only
+// safe for some prompts (e.g. caching never applies to prompts that embed relative dates).
+public final class GeminiCallOptions {
+
+    private static final GeminiCallOptions DEFAULTS = new GeminiCallOptions(false, null, null);
+
+    private final boolean cacheable;
+    // How long after an identical call started a new caller may still share its result;
+    // null means the configured default
+    private final Duration shareWindow;
+    // Response timeout for this call; null means gemini.http.response-timeout
+    private final Duration timeout;
+
+    private GeminiCallOptions(boolean cacheable, Duration shareWindow, Duration timeout) {
+        this.cacheable = cacheable;
+        this.shareWindow = shareWindow;
+        this.timeout = timeout;
+    }
+
+    public static GeminiCallOptions defaults() {
+        return DEFAULTS;
+    }
+
+    public static GeminiCallOptions cacheable() {
+        return new GeminiCallOptions(true, null, null);
+    }
+
+    public GeminiCallOptions withShareWindow(Duration shareWindow) {
+        return new GeminiCallOptions(cacheable, shareWindow, timeout);
+    }
+
+    public GeminiCallOptions withTimeout(Duration timeout) {
+        return new GeminiCallOptions(cacheable, shareWindow, timeout);
+    }
+
+    public boolean isCacheable() {
+        return cacheable;
+    }
+
+    public Duration getShareWindow() {
+        return shareWindow;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+}
@@ -0,0 +1,78 @@
+package com.mindgraph.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Single-flight for Gemini calls: concurrent callers with the same request key share one
+// in-flight call instead of each sending a duplicate request (double submits, frontend retries).
+// A caller only joins a call that started within its share window; older calls are left to
+// finish on their own and a fresh request is sent.
+@Component
+public class GeminiRequestCoalescer {
+
+    private final boolean enabled;
+    private final Duration defaultShareWindow;
+
+    private final Map<String, InFlightCall> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter started;
+    private final Counter collapsed;
+
+    public GeminiRequestCoalescer(@Value("${gemini.coalescing.enabled:true}") boolean enabled,
+                                  @Value("${gemini.coalescing.share-window:10s}") Duration defaultShareWindow,
+                                  MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.defaultShareWindow = defaultShareWindow;
+
+        this.started = Counter.builder("gemini.requests.coalescing").tag("result", "started").register(meterRegistry);
+        this.collapsed = Counter.builder("gemini.requests.coalescing").tag("result", "collapsed").register(meterRegistry);
+        Gauge.builder("gemini.requests.inflight", inFlight, Map::size).register(meterRegistry);
+    }
+
+    public Mono<String> join(String key, Duration shareWindow, Supplier<Mono<String>> call) {
+        Duration window = shareWindow != null ? shareWindow : defaultShareWindow;
+        if (!enabled || window.isZero() || window.isNegative()) {
+            return call.get();
+        }
+
+        return Mono.defer(() -> {
+            long now = System.nanoTime();
+            InFlightCall candidate = new InFlightCall(now);
+            // Assembled before publication so joiners never see a half-built entry; the upstream
+            // call is cold and only starts when the first caller subscribes. cache() lets every
+            // joined caller observe the single upstream result.
+            candidate.result = call.get()
+                    .doFinally(signal -> inFlight.remove(key, candidate))
+                    .cache();
+
+            InFlightCall shared = inFlight.compute(key, (k, current) ->
+                    current != null && now - current.startedAtNanos <= window.toNanos() ? current : candidate);
+
+            if (shared != candidate) {
+                collapsed.increment();
+                return shared.result;
+            }
+
+            started.increment();
+            return candidate.result;
+        });
+    }
+
+    private static final class InFlightCall {
+        private final long startedAtNanos;
+        private Mono<String> result;
+
+        private InFlightCall(long startedAtNanos) {
+            this.startedAtNanos = startedAtNanos;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.mindgraph.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Bounded LRU cache of Gemini replies with a time-to-live per entry.
+// Keys are GeminiService request keys (normalized prompt plus generation config), so
+// identical prompts from different users and turns share one reply.
+@Component
+public class GeminiResponseCache {
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    // Access-ordered: the head is always the least recently used entry
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+
+    public GeminiResponseCache(@Value("${gemini.cache.enabled:true}") boolean enabled,
+                               @Value("${gemini.cache.max-entries:1000}") int maxEntries,
+                               @Value("${gemini.cache.ttl:10m}") Duration ttl,
+                               MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+
+        this.hits = Counter.builder("gemini.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("gemini.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.sizeEvictions = Counter.builder("gemini.cache.evictions").tag("cause", "size").register(meterRegistry);
+        this.expiredEvictions = Counter.builder("gemini.cache.evictions").tag("cause", "expired").register(meterRegistry);
+        Gauge.builder("gemini.cache.size", this, GeminiResponseCache::size).register(meterRegistry);
+    }
+
+    // Returns the cached reply for the key, or subscribes to the loader and caches what it emits.
+    // Errors are never cached, so a failed call is retried on the next request.
+    public Mono<String> getOrLoad(String key, Mono<String> loader) {
+        if (!enabled) {
+            return loader;
+        }
+        return Mono.defer(() -> {
+            String cached = get(key);
+            if (cached != null) {
+                hits.increment();
+                return Mono.just(cached);
+            }
+            misses.increment();
+            return loader.doOnNext(response -> put(key, response));
+        });
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    private synchronized String get(String key) {
+        CachedResponse cached = entries.get(key);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.isExpired(System.nanoTime())) {
+            entries.remove(key);
+            expiredEvictions.increment();
+            return null;
+        }
+        return cached.response;
+    }
+
+    private synchronized void put(String key, String response) {
+        long now = System.nanoTime();
+        entries.put(key, new CachedResponse(response, now + ttlNanos));
+
+        // Drop expired entries from the LRU end first, then enforce the size bound
+        Iterator<Map.Entry<String, CachedResponse>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            CachedResponse eldest = iterator.next().getValue();
+            if (eldest.isExpired(now)) {
+                iterator.remove();
+                expiredEvictions.increment();
+            } else if (entries.size() > maxEntries) {
+                iterator.remove();
+                sizeEvictions.increment();
+            } else {
+                break;
+            }
+        }
+    }
+
+    private static final class CachedResponse {
+        private final String response;
+        private final long expiresAtNanos;
+
+        private CachedResponse(String response, long expiresAtNanos) {
+            this.response = response;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAtNanos > 0;
+        }
+    }
+}
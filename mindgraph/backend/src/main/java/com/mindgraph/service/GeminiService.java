@@ -2,17 +2,30 @@ package com.mindgraph.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.client.reactive.ClientHttpRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClientRequest;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
 
@@ -27,40 +40,89 @@ public class GeminiService {
     @Value("${gemini.api.url}")
     private String apiUrl;
     
+    @Value("${gemini.api.stream-url}")
+    private String streamUrl;
+    
     private final WebClient webClient;
     private final ObjectMapper objectMapper;
     
-    public GeminiService() {
-        this.webClient = WebClient.builder()
-                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                .build();
+    @Autowired
+    private GeminiResponseCache responseCache;
+    
+    @Autowired
+    private GeminiRequestCoalescer requestCoalescer;
+    
+    @Autowired
+    private GeminiCallGuard callGuard;
+    
+    private final DistributionSummary promptTokens;
+    
+    @Value("${gemini.http.response-timeout:30s}")
+    private Duration defaultTimeout;
+    
+    public GeminiService(@Qualifier("geminiWebClient") WebClient webClient, MeterRegistry meterRegistry) {
+        // Pooled transport configured in GeminiClientConfig
+        this.webClient = webClient;
         this.objectMapper = new ObjectMapper();
+        this.promptTokens = DistributionSummary.builder("gemini.prompt.tokens")
+                .description("Estimated tokens of every prompt sent to Gemini")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
     }
     
     public String generateResponse(String userMessage) {
-        try {
-            // Enhanced debugging output
-            System.out.println("=== GEMINI SERVICE DEBUG ===");
-            System.out.println("Processing user message: " + userMessage);
-            
+        return generateResponseAsync(userMessage).block();
+    }
+    
+    // Non-blocking variant: the caller's thread is released while the Gemini call is in flight
+    public Mono<String> generateResponseAsync(String userMessage) {
+        return generateResponseAsync(userMessage, GeminiCallOptions.defaults());
+    }
+    
+    public Mono<String> generateResponseAsync(String userMessage, GeminiCallOptions options) {
+        return Mono.defer(() -> {
             // Construct the request body for Gemini API
             Map<String, Object> requestBody = createGeminiRequestBody(userMessage);
             
+            // Identical concurrent requests share one call; cacheable ones are also served from the cache
+            String requestKey = requestKey(userMessage, requestBody.get("generationConfig"));
+            Mono<String> call = requestCoalescer.join(requestKey, options.getShareWindow(),
+                    () -> callGemini(userMessage, requestBody, timeoutFor(options)));
+            if (options.isCacheable()) {
+                call = responseCache.getOrLoad(requestKey, call);
+            }
+            return call;
+        }).onErrorResume(GeminiResponseFormatException.class, e -> Mono.just(e.getReply())).onErrorResume(WebClientResponseException.class, e -> {
+            logger.error("Gemini API error: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
+            return Mono.just("I'm sorry, I'm having trouble processing your request right now. Please try again later.");
+        }).onErrorResume(e -> !(e instanceof GeminiUnavailableException), e -> {
+            // GeminiUnavailableException is left to the caller, which knows the local fallback
+            logger.error("Error calling Gemini API", e);
+            return Mono.just("I'm sorry, something went wrong while processing your request.");
+        });
+    }
+    
+    // Raw call: errors propagate so that only genuine replies are ever cached
+    private Mono<String> callGemini(String userMessage, Map<String, Object> requestBody, Duration timeout) {
+        return Mono.defer(() -> {
+            // Enhanced debugging output
+            System.out.println("=== GEMINI SERVICE DEBUG ===");
+            System.out.println("Processing user message: " + userMessage);
             System.out.println("Enhanced prompt: " + enhancePrompt(userMessage));
             System.out.println("API URL: " + apiUrl);
             System.out.println("API Key present: " + (apiKey != null && !apiKey.isEmpty() && !apiKey.equals("YOUR_GEMINI_API_KEY_HERE")));
             System.out.println("============================");
             
-            // Make the API call with correct headers
-            String response = webClient.post()
+            // Make the API call with correct headers; the guard may reject it without sending
+            return callGuard.protect(webClient.post()
                     .uri(apiUrl)
                     .header("X-goog-api-key", apiKey)
                     .bodyValue(requestBody)
+                    .httpRequest(request -> applyResponseTimeout(request, timeout))
                     .retrieve()
                     .bodyToMono(String.class)
-                    .timeout(Duration.ofSeconds(30))
-                    .block();
-            
+                    .timeout(timeout));
+        }).map(response -> {
             // Parse and extract the response text
             String extractedResponse = extractResponseText(response);
             
@@ -70,13 +132,71 @@ public class GeminiService {
             System.out.println("=============================");
             
             return extractedResponse;
+        });
+    }
+    
+    // Streams the reply as text fragments using streamGenerateContent, so the first tokens
+    // reach the client long before the full candidate is generated
+    public Flux<String> streamResponse(String userMessage) {
+        return Flux.defer(() -> {
+            Map<String, Object> requestBody = createGeminiRequestBody(userMessage);
+            GeminiStreamParser parser = new GeminiStreamParser(objectMapper.getFactory());
             
-        } catch (WebClientResponseException e) {
-            logger.error("Gemini API error: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
-            return "I'm sorry, I'm having trouble processing your request right now. Please try again later.";
-        } catch (Exception e) {
-            logger.error("Error calling Gemini API", e);
-            return "I'm sorry, something went wrong while processing your request.";
+            Flux<DataBuffer> body = webClient.post()
+                    .uri(streamUrl)
+                    .header("X-goog-api-key", apiKey)
+                    .bodyValue(requestBody)
+                    .httpRequest(request -> applyResponseTimeout(request, defaultTimeout))
+                    .retrieve()
+                    .bodyToFlux(DataBuffer.class)
+                    // Idle timeout between fragments rather than for the whole reply
+                    .timeout(defaultTimeout);
+            
+            return callGuard.protect(body)
+                    .concatMapIterable(buffer -> {
+                        try {
+                            byte[] chunk = new byte[buffer.readableByteCount()];
+                            buffer.read(chunk);
+                            return parser.feed(chunk);
+                        } catch (IOException e) {
+                            throw new IllegalStateException("Malformed Gemini stream", e);
+                        } finally {
+                            DataBufferUtils.release(buffer);
+                        }
+                    })
+                    .doFinally(signal -> parser.close());
+        }).onErrorResume(WebClientResponseException.class, e -> {
+            logger.error("Gemini streaming API error: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
+            return Flux.just("I'm sorry, I'm having trouble processing your request right now. Please try again later.");
+        }).onErrorResume(e -> !(e instanceof GeminiUnavailableException), e -> {
+            logger.error("Error streaming from Gemini API", e);
+            return Flux.just("I'm sorry, something went wrong while processing your request.");
+        });
+    }
+    
+    private Duration timeoutFor(GeminiCallOptions options) {
+        return options.getTimeout() != null ? options.getTimeout() : defaultTimeout;
+    }
+    
+    // Read timeout on the pooled connection itself, so a stalled call releases it promptly
+    private void applyResponseTimeout(ClientHttpRequest request, Duration timeout) {
+        Object nativeRequest = request.getNativeRequest();
+        if (nativeRequest instanceof HttpClientRequest) {
+            ((HttpClientRequest) nativeRequest).responseTimeout(timeout);
+        }
+    }
+    
+    // SHA-256 of the normalized prompt plus the generation config
+    private String requestKey(String prompt, Object generationConfig) {
+        String normalized = prompt.trim().replaceAll("\\s+", " ").toLowerCase();
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(normalized.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(String.valueOf(generationConfig).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
     
@@ -86,7 +206,9 @@ public class GeminiService {
         // Create the contents array
         Map<String, Object> content = new HashMap<>();
         Map<String, String> part = new HashMap<>();
-        part.put("text", enhancePrompt(userMessage));
+        String prompt = enhancePrompt(userMessage);
+        promptTokens.record(ConversationHistoryPolicy.estimateTokens(prompt));
+        part.put("text", prompt);
         content.put("parts", List.of(part));
         
         requestBody.put("contents", List.of(content));
@@ -113,32 +235,47 @@ public class GeminiService {
     }
     
     private String extractResponseText(String response) {
+        JsonNode jsonNode;
         try {
-            JsonNode jsonNode = objectMapper.readTree(response);
-            JsonNode candidates = jsonNode.get("candidates");
+            jsonNode = objectMapper.readTree(response);
+        } catch (Exception e) {
+            logger.error("Error parsing Gemini API response", e);
+            throw new GeminiResponseFormatException("I'm sorry, I couldn't parse the response properly.");
+        }
+        
+        JsonNode candidates = jsonNode.get("candidates");
+        
+        if (candidates != null && candidates.isArray() && candidates.size() > 0) {
+            JsonNode firstCandidate = candidates.get(0);
+            JsonNode content = firstCandidate.get("content");
             
-            if (candidates != null && candidates.isArray() && candidates.size() > 0) {
-                JsonNode firstCandidate = candidates.get(0);
-                JsonNode content = firstCandidate.get("content");
-                
-                if (content != null) {
-                    JsonNode parts = content.get("parts");
-                    if (parts != null && parts.isArray() && parts.size() > 0) {
-                        JsonNode firstPart = parts.get(0);
-                        JsonNode text = firstPart.get("text");
-                        if (text != null) {
-                            return text.asText();
-                        }
+            if (content != null) {
+                JsonNode parts = content.get("parts");
+                if (parts != null && parts.isArray() && parts.size() > 0) {
+                    JsonNode firstPart = parts.get(0);
+                    JsonNode text = firstPart.get("text");
+                    if (text != null) {
+                        return text.asText();
                     }
                 }
             }
-            
-            logger.warn("Unexpected response format from Gemini API: {}", response);
-            return "I received a response but couldn't understand the format. Please try again.";
-            
-        } catch (Exception e) {
-            logger.error("Error parsing Gemini API response", e);
-            return "I'm sorry, I couldn't parse the response properly.";
+        }
+        
+        logger.warn("Unexpected response format from Gemini API: {}", response);
+        throw new GeminiResponseFormatException("I received a response but couldn't understand the format. Please try again.");
+    }
+    
+    // Signals a reply that arrived but could not be used; carries the text shown to the user
+    private static class GeminiResponseFormatException extends RuntimeException {
+        private final String reply;
+        
+        GeminiResponseFormatException(String reply) {
+            super(reply);
+            this.reply = reply;
+        }
+        
+        String getReply() {
+            return reply;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,66 @@
+package com.mindgraph.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Incremental parser for the streamGenerateContent response body.
+// Gemini streams one JSON array of partial responses; bytes are fed as they arrive and every
+// candidates[].content.parts[].text value is emitted as soon as it is complete.
+public class GeminiStreamParser implements AutoCloseable {
+
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+
+    public GeminiStreamParser(JsonFactory jsonFactory) {
+        try {
+            this.parser = jsonFactory.createNonBlockingByteArrayParser();
+            this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to create streaming JSON parser", e);
+        }
+    }
+
+    // Feeds the next chunk of the response and returns the text fragments it completed
+    public List<String> feed(byte[] chunk) throws IOException {
+        feeder.feedInput(chunk, 0, chunk.length);
+
+        List<String> fragments = new ArrayList<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.NOT_AVAILABLE && token != null) {
+            if (token == JsonToken.VALUE_STRING && isPartText(parser.getParsingContext())) {
+                fragments.add(parser.getText());
+            }
+        }
+        return fragments;
+    }
+
+    private boolean isPartText(JsonStreamContext context) {
+        // {"parts": [ {"text": "..."} ]} -> object("text") <- array <- object("parts")
+        if (!context.inObject() || !"text".equals(context.getCurrentName())) {
+            return false;
+        }
+        JsonStreamContext array = context.getParent();
+        if (array == null || !array.inArray()) {
+            return false;
+        }
+        JsonStreamContext owner = array.getParent();
+        return owner != null && "parts".equals(owner.getCurrentName());
+    }
+
+    @Override
+    public void close() {
+        try {
+            feeder.endOfInput();
+            parser.close();
+        } catch (IOException ignored) {
+            // Nothing left to release
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.mindgraph.service;
+
+// Thrown without calling Gemini when the circuit breaker is open or the concurrency limit is
+// reached. Unlike other Gemini failures it is not turned into an apology by GeminiService, so
+// callers can fall back to local logic or answer with a degraded response straight away.
+public class GeminiUnavailableException extends RuntimeException {
+
+    public GeminiUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,255 @@
+package com.mindgraph.service;
+
+import com.mindgraph.dto.ConversationContextDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// In-memory storage for conversation contexts, bounded by entry count and estimated bytes.
+// Sessions are spread over segments, each a LinkedHashMap kept in last-touched order under
+// its own lock: the head of a segment is always its next session to expire, so eviction and
+// the sweeper only ever look at entries they are about to remove.
+// Live contexts are snapshotted to disk and restored lazily after a restart.
+@Component
+@ConditionalOnProperty(name = "chatbot.context.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryConversationContextStore implements ConversationContextStore {
+
+    private static final int SEGMENTS = 16;
+
+    private static final long EXPIRY_NANOS = CONTEXT_EXPIRY_MINUTES * 60_000_000_000L;
+    private static final Duration EXPIRY = Duration.ofMinutes(CONTEXT_EXPIRY_MINUTES);
+
+    // Rough fixed cost of a context object and of one collected-data entry
+    private static final int BASE_BYTES = 512;
+    private static final int DATA_ENTRY_BYTES = 96;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final int maxEntriesPerSegment;
+    private final long maxBytesPerSegment;
+
+    private final Counter sizeEvictions;
+    private final Counter byteEvictions;
+    private final Counter expiredEvictions;
+
+    @Autowired
+    private ConversationContextSnapshot snapshot;
+
+    public InMemoryConversationContextStore(@Value("${chatbot.context.max-sessions:10000}") int maxSessions,
+                                            @Value("${chatbot.context.max-bytes:268435456}") long maxBytes,
+                                            MeterRegistry meterRegistry) {
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+        this.maxEntriesPerSegment = Math.max(1, maxSessions / SEGMENTS);
+        this.maxBytesPerSegment = Math.max(BASE_BYTES, maxBytes / SEGMENTS);
+
+        this.sizeEvictions = Counter.builder("chatbot.sessions.evictions").tag("cause", "size").register(meterRegistry);
+        this.byteEvictions = Counter.builder("chatbot.sessions.evictions").tag("cause", "bytes").register(meterRegistry);
+        this.expiredEvictions = Counter.builder("chatbot.sessions.evictions").tag("cause", "expired").register(meterRegistry);
+        Gauge.builder("chatbot.sessions.live", this, InMemoryConversationContextStore::liveSessions).register(meterRegistry);
+        Gauge.builder("chatbot.sessions.bytes", this, InMemoryConversationContextStore::liveBytes).register(meterRegistry);
+    }
+
+    @Override
+    public ConversationContextDTO find(String sessionId) {
+        Segment segment = segmentFor(sessionId);
+        synchronized (segment) {
+            Entry entry = segment.entries.get(sessionId);
+            return entry != null && !isExpired(entry, System.nanoTime()) ? entry.context : null;
+        }
+    }
+
+    @Override
+    public ConversationContextDTO getOrCreate(String sessionId) {
+        Segment segment = segmentFor(sessionId);
+        synchronized (segment) {
+            Entry entry = segment.entries.get(sessionId);
+
+            // Check if context has expired
+            if (entry == null || isExpired(entry, System.nanoTime())) {
+                if (entry != null) {
+                    segment.remove(sessionId);
+                    expiredEvictions.increment();
+                }
+                // A session from before the last restart resumes where it left off
+                ConversationContextDTO restored = entry == null ? snapshot.restore(sessionId, EXPIRY) : null;
+                entry = new Entry(restored != null ? restored : new ConversationContextDTO(sessionId));
+                segment.touch(sessionId, entry);
+                evictOverflow(segment);
+            }
+            return entry.context;
+        }
+    }
+
+    @Override
+    public void save(ConversationContextDTO context) {
+        Segment segment = segmentFor(context.getSessionId());
+        synchronized (segment) {
+            Entry entry = segment.entries.get(context.getSessionId());
+            if (entry == null || entry.context != context) {
+                entry = new Entry(context);
+            }
+            segment.touch(context.getSessionId(), entry);
+            evictOverflow(segment);
+        }
+    }
+
+    @Override
+    public void remove(String sessionId) {
+        Segment segment = segmentFor(sessionId);
+        synchronized (segment) {
+            segment.remove(sessionId);
+        }
+    }
+
+    // Each segment is read from its head and the scan stops at the first live entry,
+    // so the cost is proportional to what gets removed
+    @Override
+    public void removeExpired() {
+        long now = System.nanoTime();
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                Iterator<Map.Entry<String, Entry>> it = segment.entries.entrySet().iterator();
+                while (it.hasNext()) {
+                    Entry entry = it.next().getValue();
+                    if (!isExpired(entry, now)) {
+                        break;
+                    }
+                    it.remove();
+                    segment.bytes -= entry.bytes;
+                    expiredEvictions.increment();
+                }
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${chatbot.context.snapshot.interval-ms:60000}",
+               initialDelayString = "${chatbot.context.snapshot.interval-ms:60000}")
+    public void snapshotContexts() {
+        snapshot.write(liveContexts(), EXPIRY);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        snapshotContexts();
+    }
+
+    public int liveSessions() {
+        int count = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                count += segment.entries.size();
+            }
+        }
+        return count;
+    }
+
+    public long liveBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                bytes += segment.bytes;
+            }
+        }
+        return bytes;
+    }
+
+    private List<ConversationContextDTO> liveContexts() {
+        long now = System.nanoTime();
+        List<ConversationContextDTO> live = new ArrayList<>();
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                for (Entry entry : segment.entries.values()) {
+                    if (!isExpired(entry, now)) {
+                        live.add(entry.context);
+                    }
+                }
+            }
+        }
+        return live;
+    }
+
+    // Evicts from the head (the least recently touched sessions) until the segment fits its budget
+    private void evictOverflow(Segment segment) {
+        Iterator<Map.Entry<String, Entry>> it = segment.entries.entrySet().iterator();
+        while (segment.entries.size() > 1
+                && (segment.entries.size() > maxEntriesPerSegment || segment.bytes > maxBytesPerSegment)) {
+            Entry eldest = it.next().getValue();
+            if (segment.entries.size() > maxEntriesPerSegment) {
+                sizeEvictions.increment();
+            } else {
+                byteEvictions.increment();
+            }
+            it.remove();
+            segment.bytes -= eldest.bytes;
+        }
+    }
+
+    private Segment segmentFor(String sessionId) {
+        int hash = sessionId.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private static boolean isExpired(Entry entry, long now) {
+        return now - entry.touchedAt > EXPIRY_NANOS;
+    }
+
+    private static int estimateBytes(ConversationContextDTO context) {
+        int bytes = BASE_BYTES;
+        List<String> history = context.getConversationHistory();
+        for (String line : history) {
+            // Strings are stored as Latin-1 or UTF-16; UTF-8 length is a fair middle estimate
+            bytes += line.getBytes(StandardCharsets.UTF_8).length + 40;
+        }
+        if (context.getHistorySummary() != null) {
+            bytes += context.getHistorySummary().length();
+        }
+        bytes += context.getCollectedData().size() * DATA_ENTRY_BYTES;
+        return bytes;
+    }
+
+    private static final class Entry {
+        private final ConversationContextDTO context;
+        private long touchedAt;
+        private int bytes;
+
+        Entry(ConversationContextDTO context) {
+            this.context = context;
+        }
+    }
+
+    // Insertion-ordered; touch() re-inserts, so order is by last touch rather than by any read
+    private static final class Segment {
+        private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+        private long bytes;
+
+        void touch(String sessionId, Entry entry) {
+            remove(sessionId);
+            entry.touchedAt = System.nanoTime();
+            entry.bytes = estimateBytes(entry.context);
+            entries.put(sessionId, entry);
+            bytes += entry.bytes;
+        }
+
+        void remove(String sessionId) {
+            Entry removed = entries.remove(sessionId);
+            if (removed != null) {
+                bytes -= removed.bytes;
+            }
+        }
+    }
+}
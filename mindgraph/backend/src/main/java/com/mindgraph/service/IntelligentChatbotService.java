@@ -8,10 +8,22 @@ import com.mindgraph.repository.TaskRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
 
 @Service
 public class IntelligentChatbotService {
@@ -30,10 +42,65 @@ public class IntelligentChatbotService {
     @Autowired
     private TaskService taskService;
     
+    @Autowired
+    private LocalIntentClassifier localIntentClassifier;
+    
+    @Autowired
+    private NaturalDateTimeParser dateTimeParser;
+    
+    @Autowired
+    private ConversationHistoryPolicy historyPolicy;
+    
+    @Autowired
+    private SessionTurnExecutor turnExecutor;
+    
+    @Autowired
+    private ScheduleConflictService conflictService;
+    
+    @Autowired
+    private FreeSlotService freeSlotService;
+    
+    @Value("${chatbot.intent.local-threshold:0.8}")
+    private double localIntentThreshold;
+    
+    @Value("${chatbot.combined-analysis.enabled:true}")
+    private boolean combinedAnalysisEnabled;
+    
+    // Intent prompts are short; a slow reply is better replaced by the local guess
+    @Value("${chatbot.intent.gemini-timeout:10s}")
+    private Duration intentTimeout;
+    
+    private static final String DEGRADED_REPLY = "I'm running in a limited mode right now because the AI service is busy. " +
+            "I can still show your tasks, and I can create a task if you give me the title, date, start time " +
+            "and duration in one message. For anything else, please try again in a minute.";
+    
+    private static final String BUSY_REPLY = "I'm still working on your previous messages. " +
+            "Please wait for my reply before sending more.";
+    
+    private static final DateTimeFormatter PROMPT_DATE_FORMAT =
+            DateTimeFormatter.ofPattern("EEEE, MMMM d, yyyy HH:mm", Locale.ENGLISH);
+    
+    private static final int TASK_OVERVIEW_SIZE = 10;
+    
+    private static final DateTimeFormatter FOLLOW_UP_DATE_FORMAT =
+            DateTimeFormatter.ofPattern("EEEE, MMMM d", Locale.ENGLISH);
+    
+    // collectedData keys of the task being filled in over several turns
+    private static final String DRAFT_TITLE = "task.title";
+    private static final String DRAFT_START = "task.startTime";
+    private static final String DRAFT_END = "task.endTime";
+    private static final String DRAFT_DURATION = "task.durationMinutes";
+    private static final String DRAFT_DESCRIPTION = "task.description";
+    
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     public ChatResponseDTO processMessage(String userMessage, String sessionId, User user) {
-        try {
+        return processMessageAsync(userMessage, sessionId, user, ZoneId.systemDefault()).block();
+    }
+
+    public Mono<ChatResponseDTO> processMessageAsync(String userMessage, String sessionId, User user, ZoneId zone) {
+        // Turns on one session run in order, so they never touch the same context concurrently
+        return turnExecutor.runTurn(sessionId, () -> Mono.defer(() -> {
             System.out.println("=== INTELLIGENT CHATBOT DEBUG ===");
             System.out.println("Processing message: " + userMessage);
             System.out.println("Session ID: " + sessionId);
@@ -41,62 +108,188 @@ public class IntelligentChatbotService {
             
             // Get or create conversation context
             ConversationContextDTO context = contextService.getOrCreateContext(sessionId);
+            context.setTimeZone(zone.getId());
+            context.setUserId(user.getId());
             
-            // Analyze intent if no active context or new conversation
-            if (context.getCurrentIntent() == null) {
-                IntentAnalysisDTO intent = analyzeIntent(userMessage);
-                context.setCurrentIntent(intent.getIntent());
-                context.setCurrentStep("initial");
-                System.out.println("Detected intent: " + intent.getIntent());
-            }
-            
-            String response;
-            
-            // Route to appropriate handler based on intent
-            switch (context.getCurrentIntent().toLowerCase()) {
-                case "create_task":
-                    response = handleTaskCreation(userMessage, context, user);
-                    break;
-                case "view_tasks":
-                    response = handleViewTasks(userMessage, context, user);
-                    break;
-                case "edit_task":
-                    response = handleEditTask(userMessage, context, user);
-                    break;
-                case "delete_task":
-                    response = handleDeleteTask(userMessage, context, user);
-                    break;
-                default:
-                    response = handleGeneralQuery(userMessage, context, user);
-                    break;
-            }
-            
-            // Update conversation history
-            contextService.addMessageToHistory(sessionId, userMessage, response);
-            
-            System.out.println("Generated response: " + response);
-            System.out.println("==================================");
-            
-            return new ChatResponseDTO(response);
-            
-        } catch (Exception e) {
+            return analyzeTurn(userMessage, context)
+                    .flatMap(analysis -> routeMessage(userMessage, context, user, analysis))
+                    // Update conversation history; the store and the history writer may block
+                    .flatMap(response -> onBlockingScheduler(() -> {
+                        contextService.addMessageToHistory(sessionId, userMessage, response);
+                        
+                        System.out.println("Generated response: " + response);
+                        System.out.println("==================================");
+                        
+                        return new ChatResponseDTO(response);
+                    }));
+        })).onErrorResume(SessionBusyException.class, e -> {
+            logger.warn(e.getMessage());
+            return Mono.just(new ChatResponseDTO(BUSY_REPLY, "busy"));
+        }).onErrorResume(GeminiUnavailableException.class, e -> {
+            // Fast answer instead of waiting on Gemini; the context is kept so the user can retry
+            logger.warn("Answering in degraded mode: {}", e.getMessage());
+            return Mono.just(new ChatResponseDTO(DEGRADED_REPLY, "degraded"));
+        }).onErrorResume(e -> {
             logger.error("Error processing intelligent chatbot message", e);
-            return new ChatResponseDTO("I'm sorry, I encountered an error while processing your request. Please try again.");
+            return Mono.just(new ChatResponseDTO("I'm sorry, I encountered an error while processing your request. Please try again."));
+        });
+    }
+
+    // Streams the reply as text fragments. Free-form answers are streamed token by token from
+    // Gemini; task flows produce short local replies and are emitted as a single fragment.
+    public Flux<String> streamMessage(String userMessage, String sessionId, User user, ZoneId zone) {
+        return turnExecutor.streamTurn(sessionId, () -> Flux.defer(() -> {
+            StringBuilder fullReply = new StringBuilder();
+            ConversationContextDTO context = contextService.getOrCreateContext(sessionId);
+            context.setTimeZone(zone.getId());
+            context.setUserId(user.getId());
+            
+            return analyzeTurn(userMessage, context)
+                    .flatMapMany(analysis -> {
+                        if (isTaskIntent(context.getCurrentIntent())) {
+                            return routeMessage(userMessage, context, user, analysis).flux();
+                        }
+                        contextService.markContextComplete(context.getSessionId());
+                        return geminiService.streamResponse(createGeneralQueryPrompt(userMessage));
+                    })
+                    .doOnNext(fullReply::append)
+                    // Record the assembled reply once the stream has finished, off the event loop
+                    .concatWith(Mono.<String>fromRunnable(
+                            () -> contextService.addMessageToHistory(sessionId, userMessage, fullReply.toString()))
+                            .subscribeOn(Schedulers.boundedElastic()));
+        })).onErrorResume(SessionBusyException.class, e -> {
+            logger.warn(e.getMessage());
+            return Flux.just(BUSY_REPLY);
+        }).onErrorResume(GeminiUnavailableException.class, e -> {
+            logger.warn("Streaming in degraded mode: {}", e.getMessage());
+            return Flux.just(DEGRADED_REPLY);
+        }).onErrorResume(e -> {
+            logger.error("Error streaming intelligent chatbot message", e);
+            return Flux.just("I'm sorry, I encountered an error while processing your request. Please try again.");
+        });
+    }
+
+    private Mono<MessageAnalysisDTO> analyzeTurn(String userMessage, ConversationContextDTO context) {
+        // Analyze intent if no active context or new conversation
+        if (context.getCurrentIntent() != null && !context.isComplete()) {
+            return Mono.just(new MessageAnalysisDTO());
         }
+        // A finished conversation leaves nothing half-filled behind
+        context.setComplete(false);
+        context.getCollectedData().clear();
+        return analyzeIntent(userMessage, context).map(analysis -> {
+            IntentAnalysisDTO intent = analysis.getIntent();
+            context.setCurrentIntent(intent.getIntent());
+            context.setCurrentStep("initial");
+            System.out.println("Detected intent: " + intent.getIntent());
+            return analysis;
+        });
     }
 
-    private IntentAnalysisDTO analyzeIntent(String userMessage) {
-        String intentPrompt = createIntentAnalysisPrompt(userMessage);
-        String geminiResponse = geminiService.generateResponse(intentPrompt);
-        
-        try {
-            return parseIntentResponse(geminiResponse);
-        } catch (Exception e) {
-            logger.error("Error parsing intent analysis", e);
-            return new IntentAnalysisDTO("general", 0.5, "answer");
+    private boolean isTaskIntent(String intent) {
+        switch (intent.toLowerCase()) {
+            case "create_task":
+            case "view_tasks":
+            case "edit_task":
+            case "delete_task":
+                return true;
+            default:
+                return false;
         }
     }
 
+    private Mono<String> routeMessage(String userMessage, ConversationContextDTO context, User user,
+                                      MessageAnalysisDTO analysis) {
+        // Route to appropriate handler based on intent
+        switch (context.getCurrentIntent().toLowerCase()) {
+            case "create_task":
+                return handleTaskCreation(userMessage, context, user, analysis);
+            case "view_tasks":
+                return handleViewTasks(userMessage, context, user);
+            case "edit_task":
+                return Mono.just(handleEditTask(userMessage, context, user));
+            case "delete_task":
+                return Mono.just(handleDeleteTask(userMessage, context, user));
+            default:
+                return handleGeneralQuery(userMessage, context, user);
+        }
+    }
+
+    private Mono<MessageAnalysisDTO> analyzeIntent(String userMessage, ConversationContextDTO context) {
+        // Obvious intents are resolved locally; Gemini is only asked when the classifier is unsure
+        IntentAnalysisDTO localIntent = localIntentClassifier.classify(userMessage);
+        if (localIntent.getConfidence() >= localIntentThreshold) {
+            logger.debug("Local intent {} ({})", localIntent.getIntent(), localIntent.getConfidence());
+            return Mono.just(new MessageAnalysisDTO(localIntent));
+        }
+        
+        // One call returns intent, task slots and follow-up question together
+        Mono<MessageAnalysisDTO> analysis = combinedAnalysisEnabled
+                ? analyzeCombined(userMessage, context)
+                : analyzeIntentWithGemini(userMessage);
+        
+        // Gemini is overloaded or the breaker is open: the local guess is deterministic and instant
+        return analysis.onErrorResume(GeminiUnavailableException.class, e -> {
+            logger.warn("Gemini unavailable, using local intent {}: {}", localIntent.getIntent(), e.getMessage());
+            return Mono.just(new MessageAnalysisDTO(localIntent));
+        });
+    }
+
+    private Mono<MessageAnalysisDTO> analyzeIntentWithGemini(String userMessage) {
+        String intentPrompt = createIntentAnalysisPrompt(userMessage);
+        return geminiService.generateResponseAsync(intentPrompt,
+                GeminiCallOptions.cacheable().withTimeout(intentTimeout)).map(geminiResponse -> {
+            try {
+                return new MessageAnalysisDTO(parseIntentResponse(geminiResponse));
+            } catch (Exception e) {
+                logger.error("Error parsing intent analysis", e);
+                return new MessageAnalysisDTO(new IntentAnalysisDTO("general", 0.5, "answer"));
+            }
+        });
+    }
+
+    private Mono<MessageAnalysisDTO> analyzeCombined(String userMessage, ConversationContextDTO context) {
+        // Never cached: the prompt embeds conversation history and relative dates
+        String combinedPrompt = createCombinedAnalysisPrompt(userMessage, context);
+        return geminiService.generateResponseAsync(combinedPrompt).map(this::parseCombinedResponse);
+    }
+
+    private String createCombinedAnalysisPrompt(String userMessage, ConversationContextDTO context) {
+        return "You are an AI assistant for a task management system. In ONE step, classify the user's intent " +
+                "and extract task details.\n\n" +
+                "Intents:\n" +
+                "- create_task: User wants to schedule/create a task\n" +
+                "- view_tasks: User wants to see tasks\n" +
+                "- edit_task: User wants to modify a task\n" +
+                "- delete_task: User wants to remove a task\n" +
+                "- general: Everything else (greetings, questions, general chat)\n\n" +
+                "For create_task, the MANDATORY FIELDS are: title, start time, and end time OR duration.\n\n" +
+                "CONVERSATION HISTORY:\n" + historyPolicy.promptHistory(context) + "\n\n" +
+                "CURRENT MESSAGE: \"" + userMessage + "\"\n\n" +
+                "Instructions:\n" +
+                dateTimeInstructions(context) + "\n" +
+                "Respond with ONLY a JSON object:\n" +
+                "{\n" +
+                "  \"intent\": \"create_task\",\n" +
+                "  \"confidence\": 0.95,\n" +
+                "  \"action\": \"create\",\n" +
+                "  \"entity\": \"task\",\n" +
+                "  \"explanation\": \"User wants to create a new task\",\n" +
+                "  \"title\": \"extracted title or null\",\n" +
+                "  \"startTime\": \"2025-09-20T09:00:00 or null\",\n" +
+                "  \"endTime\": \"2025-09-20T11:00:00 or null\",\n" +
+                "  \"durationMinutes\": 120 or null,\n" +
+                "  \"description\": \"any additional context or null\"\n" +
+                "}";
+    }
+
+    private MessageAnalysisDTO parseCombinedResponse(String response) {
+        // Both parsers read the same top-level JSON object
+        IntentAnalysisDTO intent = parseIntentResponse(response);
+        TaskExtractionDTO taskData = parseTaskExtractionResponse(response);
+        return new MessageAnalysisDTO(intent, taskData);
+    }
+
     private String createIntentAnalysisPrompt(String userMessage) {
         return "You are an AI assistant for a task management system. Analyze the user's intent and respond with ONLY a JSON object.\n\n" +
                 "Look for these intentions:\n" +
@@ -136,92 +329,180 @@ public class IntelligentChatbotService {
         }
     }
 
-    private String handleTaskCreation(String userMessage, ConversationContextDTO context, User user) {
-        try {
-            // Extract task information from current message and context
-            TaskExtractionDTO taskData = extractTaskData(userMessage, context);
-            
+    private Mono<String> handleTaskCreation(String userMessage, ConversationContextDTO context, User user,
+                                            MessageAnalysisDTO analysis) {
+        // The task is filled in over several turns: each turn only looks for the fields still missing
+        TaskExtractionDTO draft = loadDraft(context);
+        
+        return fillMissingFields(userMessage, context, draft, analysis).flatMap(taskData -> {
             System.out.println("=== TASK EXTRACTION DEBUG ===");
             System.out.println("Extracted data: " + taskData.toString());
             System.out.println("Has minimum info: " + taskData.hasMinimumRequiredInfo());
             System.out.println("==============================");
             
             if (taskData.hasMinimumRequiredInfo()) {
-                // Create the task immediately
-                try {
-                    Task createdTask = createTaskFromExtraction(taskData, user);
-                    contextService.markContextComplete(context.getSessionId());
-                    
-                    return String.format("✅ Perfect! I've created your task:\n\n" +
-                            "**%s**\n" +
-                            "📅 %s\n" +
-                            "⏰ %s to %s\n" +
-                            "📋 Status: %s\n" +
-                            "🆔 Task ID: %d\n\n" +
-                            "Your task has been added to your schedule!",
-                            createdTask.getTitle(),
-                            createdTask.getScheduledStartTime().toLocalDate(),
-                            createdTask.getScheduledStartTime().toLocalTime(),
-                            createdTask.getScheduledEndTime().toLocalTime(),
-                            createdTask.getStatus(),
-                            createdTask.getId()
-                    );
-                } catch (Exception e) {
-                    logger.error("Failed to create task in database", e);
-                    contextService.markContextComplete(context.getSessionId());
-                    return "❌ I'm sorry, there was an error saving your task to the database. " +
-                           "Error: " + e.getMessage() + 
-                           "\n\nPlease try again or contact support if the problem persists.";
-                }
-            } else {
-                // Ask for missing information - but be smart about it
-                return generateFollowUpQuestion(taskData, context);
+                clearDraft(context);
+                // Create the task immediately; the JPA save blocks, so keep it off the HTTP client threads
+                return onBlockingScheduler(() -> createTaskFromExtraction(taskData, user))
+                        .map(createdTask -> {
+                            contextService.markContextComplete(context.getSessionId());
+                            
+                            return String.format("✅ Perfect! I've created your task:\n\n" +
+                                    "**%s**\n" +
+                                    "📅 %s\n" +
+                                    "⏰ %s to %s\n" +
+                                    "📋 Status: %s\n" +
+                                    "🆔 Task ID: %d\n\n" +
+                                    "Your task has been added to your schedule!",
+                                    createdTask.getTitle(),
+                                    createdTask.getScheduledStartTime().toLocalDate(),
+                                    createdTask.getScheduledStartTime().toLocalTime(),
+                                    createdTask.getScheduledEndTime().toLocalTime(),
+                                    createdTask.getStatus(),
+                                    createdTask.getId()
+                            ) + conflictWarning(createdTask, user);
+                        })
+                        .onErrorResume(e -> {
+                            logger.error("Failed to create task in database", e);
+                            contextService.markContextComplete(context.getSessionId());
+                            return Mono.just("❌ I'm sorry, there was an error saving your task to the database. " +
+                                   "Error: " + e.getMessage() + 
+                                   "\n\nPlease try again or contact support if the problem persists.");
+                        });
             }
-        } catch (Exception e) {
+            
+            // Keep what we have and ask for the next missing piece
+            saveDraft(context, taskData);
+            // Load the user's schedule while they answer, so the final conflict check stays in memory
+            Schedulers.boundedElastic().schedule(() -> prefetchSchedule(user));
+            return Mono.just(followUpQuestion(taskData));
+        }).onErrorResume(e -> !(e instanceof GeminiUnavailableException), e -> {
             logger.error("Error handling task creation", e);
+            clearDraft(context);
             contextService.markContextComplete(context.getSessionId());
-            return "I'm having trouble creating the task. Could you try again with: task title, start time, and duration/end time?";
+            return Mono.just("I'm having trouble creating the task. Could you try again with: task title, start time, and duration/end time?");
+        });
+    }
+
+    private Mono<TaskExtractionDTO> fillMissingFields(String userMessage, ConversationContextDTO context,
+                                                      TaskExtractionDTO draft, MessageAnalysisDTO analysis) {
+        // Common phrasings ("tomorrow at 3pm for 2 hours", "2 hours") are resolved locally
+        TaskExtractionDTO parsed = dateTimeParser.parse(userMessage, now(context));
+        
+        // The combined intent call already extracted this turn's fields; its title wins over the
+        // parser's, which is only the text left around the times
+        if (analysis.hasTaskData()) {
+            mergeMissing(draft, analysis.getTaskData());
+            mergeMissing(draft, parsed);
+            return Mono.just(draft);
+        }
+        
+        // A follow-up reply is usually just the missing field ("Dentist"), so the parser's title can
+        // be taken as is. On the first turn it is only a guess: it does not count as filled, and it
+        // is used only when Gemini has no title either
+        boolean firstTurn = isBlank(draft.getTitle()) && draft.getStartTime() == null
+                && draft.getEndTime() == null && draft.getDurationMinutes() == null;
+        String guessedTitle = null;
+        if (firstTurn) {
+            guessedTitle = parsed.getTitle();
+            parsed.setTitle(null);
+        }
+        boolean filledLocally = mergeMissing(draft, parsed);
+        
+        // Gemini is only asked when the local parser found nothing new in the reply
+        if (draft.hasMinimumRequiredInfo() || (filledLocally && !firstTurn)) {
+            return Mono.just(draft);
         }
+        TaskExtractionDTO guess = new TaskExtractionDTO();
+        guess.setTitle(guessedTitle);
+        return extractMissingFields(userMessage, context, draft).map(found -> {
+            mergeMissing(draft, found);
+            mergeMissing(draft, guess);
+            return draft;
+        }).onErrorResume(GeminiUnavailableException.class, e -> {
+            // The draft is kept; the template question asks for the same field again
+            logger.warn("Gemini unavailable, asking for {} locally: {}", draft.getMissingFieldsAsString(), e.getMessage());
+            mergeMissing(draft, guess);
+            return Mono.just(draft);
+        });
     }
 
-    private TaskExtractionDTO extractTaskData(String userMessage, ConversationContextDTO context) {
-        String extractionPrompt = createTaskExtractionPrompt(userMessage, context);
-        String geminiResponse = geminiService.generateResponse(extractionPrompt);
+    // Copies the fields the draft does not have yet; returns whether anything was added
+    private boolean mergeMissing(TaskExtractionDTO draft, TaskExtractionDTO found) {
+        boolean changed = false;
+        if (isBlank(draft.getTitle()) && !isBlank(found.getTitle())) {
+            draft.setTitle(found.getTitle());
+            changed = true;
+        }
+        if (draft.getStartTime() == null && found.getStartTime() != null) {
+            draft.setStartTime(found.getStartTime());
+            changed = true;
+        }
+        if (draft.getEndTime() == null && draft.getDurationMinutes() == null) {
+            if (found.getEndTime() != null) {
+                draft.setEndTime(found.getEndTime());
+                changed = true;
+            } else if (found.getDurationMinutes() != null) {
+                draft.setDurationMinutes(found.getDurationMinutes());
+                changed = true;
+            }
+        }
+        if (draft.getDescription() == null && found.getDescription() != null) {
+            draft.setDescription(found.getDescription());
+        }
+        draft.validateAndSetMissingFields();
+        return changed;
+    }
+
+    private Mono<TaskExtractionDTO> extractMissingFields(String userMessage, ConversationContextDTO context,
+                                                         TaskExtractionDTO draft) {
+        // Never cached: the prompt embeds relative dates
+        String extractionPrompt = createMissingFieldsPrompt(userMessage, context, draft);
+        return geminiService.generateResponseAsync(extractionPrompt).map(this::parseTaskExtractionResponse);
+    }
+
+    // Only the current reply, what is already known and the missing keys; no conversation history
+    private String createMissingFieldsPrompt(String userMessage, ConversationContextDTO context, TaskExtractionDTO draft) {
+        StringBuilder known = new StringBuilder();
+        if (!isBlank(draft.getTitle())) {
+            known.append("- Title: ").append(draft.getTitle()).append("\n");
+        }
+        if (draft.getStartTime() != null) {
+            known.append("- Start time: ").append(draft.getStartTime()).append("\n");
+        }
         
-        try {
-            return parseTaskExtractionResponse(geminiResponse);
-        } catch (Exception e) {
-            logger.error("Error extracting task data", e);
-            TaskExtractionDTO taskData = new TaskExtractionDTO();
-            taskData.validateAndSetMissingFields();
-            return taskData;
+        StringBuilder keys = new StringBuilder();
+        for (String field : draft.getMissingMandatoryFields()) {
+            switch (field) {
+                case "title":
+                    keys.append("  \"title\": \"task name or null\",\n");
+                    break;
+                case "start time":
+                    keys.append("  \"startTime\": \"2025-09-20T09:00:00 or null\",\n");
+                    break;
+                default:
+                    keys.append("  \"endTime\": \"2025-09-20T11:00:00 or null\",\n");
+                    keys.append("  \"durationMinutes\": 120 or null,\n");
+                    break;
+            }
         }
+        
+        return "A user is creating a task and was asked for: " + draft.getMissingFieldsAsString() + ".\n" +
+                (known.length() > 0 ? "Already known:\n" + known : "") +
+                "User's reply: \"" + userMessage + "\"\n\n" +
+                "Extract ONLY the missing fields from the reply.\n" +
+                dateTimeInstructions(context) +
+                "Respond with ONLY a JSON object:\n" +
+                "{\n" + keys.substring(0, keys.length() - 2) + "\n}";
     }
 
-    private String createTaskExtractionPrompt(String userMessage, ConversationContextDTO context) {
-        return "You are a task scheduling assistant. Extract ONLY these essential details from the user's message:\n\n" +
-                "MANDATORY FIELDS (required to create task):\n" +
-                "1. Title/task name\n" +
-                "2. Start time (when to begin)\n" +
-                "3. End time OR duration\n\n" +
-                "CONVERSATION HISTORY:\n" + context.getFullConversationHistory() + "\n\n" +
-                "CURRENT MESSAGE: \"" + userMessage + "\"\n\n" +
-                "Instructions:\n" +
-                "- Be smart about date/time interpretation (e.g., 'tomorrow' = next day, 'next Monday' = upcoming Monday)\n" +
+    private String dateTimeInstructions(ConversationContextDTO context) {
+        ZonedDateTime now = now(context);
+        return "- Be smart about date/time interpretation (e.g., 'tomorrow' = next day, 'next Monday' = upcoming Monday)\n" +
                 "- If user says 'for 2 hours' extract as duration\n" +
                 "- If user says 'from 2pm to 4pm' extract start and end times\n" +
-                "- Use current date as base: September 19, 2025\n" +
-                "- Default to reasonable times if user is vague (e.g., 'morning' = 9:00 AM)\n\n" +
-                "Respond with ONLY a JSON object:\n" +
-                "{\n" +
-                "  \"title\": \"extracted title or null\",\n" +
-                "  \"startTime\": \"2025-09-20T09:00:00 or null\",\n" +
-                "  \"endTime\": \"2025-09-20T11:00:00 or null\",\n" +
-                "  \"durationMinutes\": 120 or null,\n" +
-                "  \"description\": \"any additional context or null\",\n" +
-                "  \"extractedInfo\": \"summary of what was found\",\n" +
-                "  \"isComplete\": true/false\n" +
-                "}";
+                "- Use current date and time as base: " + now.format(PROMPT_DATE_FORMAT) + "\n" +
+                "- Default to reasonable times if user is vague (e.g., 'morning' = 9:00 AM)\n";
     }
 
     private TaskExtractionDTO parseTaskExtractionResponse(String response) {
@@ -277,6 +558,62 @@ public class IntelligentChatbotService {
         }
     }
 
+    // Served from ScheduleConflictService's in-memory index; the new task itself is left out
+    private String conflictWarning(Task task, User user) {
+        if (task.getScheduledStartTime() == null || task.getScheduledEndTime() == null) {
+            return "";
+        }
+        try {
+            List<ScheduleConflictDTO> conflicts = conflictService.findConflicts(user.getId(),
+                    task.getScheduledStartTime(), task.getScheduledEndTime(), ScheduleChangedEvent.TASK, task.getId());
+            if (conflicts.isEmpty()) {
+                return "";
+            }
+            StringBuilder warning = new StringBuilder("\n\n⚠️ Heads up, this overlaps with:\n");
+            for (int i = 0; i < Math.min(conflicts.size(), 3); i++) {
+                ScheduleConflictDTO conflict = conflicts.get(i);
+                warning.append(String.format("- **%s** (%s %s to %s)\n", conflict.getTitle(),
+                        conflict.getStartTime().toLocalDate(), conflict.getStartTime().toLocalTime(),
+                        conflict.getEndTime().toLocalTime()));
+            }
+            if (conflicts.size() > 3) {
+                warning.append("- and ").append(conflicts.size() - 3).append(" more\n");
+            }
+            warning.append(freeSlotSuggestion(task, user));
+            return warning.toString();
+        } catch (RuntimeException e) {
+            logger.warn("Could not check conflicts for task {}", task.getId(), e);
+            return "";
+        }
+    }
+
+    // Free times of the same length that day, so the user can move the task in one reply
+    private String freeSlotSuggestion(Task task, User user) {
+        int minutes = (int) Duration.between(task.getScheduledStartTime(), task.getScheduledEndTime()).toMinutes();
+        if (minutes <= 0 || !task.getScheduledStartTime().toLocalDate().equals(task.getScheduledEndTime().toLocalDate())) {
+            return "";
+        }
+        List<AvailableSlotDTO> slots = freeSlotService.findAvailableSlots(user.getId(),
+                task.getScheduledStartTime().toLocalDate(), minutes, 3, task.getId(), LocalDateTime.now());
+        if (slots.isEmpty()) {
+            return "";
+        }
+        StringBuilder suggestion = new StringBuilder("Free that day: ");
+        for (int i = 0; i < slots.size(); i++) {
+            suggestion.append(i > 0 ? ", " : "").append(slots.get(i).getStartTime().toLocalTime())
+                    .append("-").append(slots.get(i).getEndTime().toLocalTime());
+        }
+        return suggestion.append("\n").toString();
+    }
+
+    private void prefetchSchedule(User user) {
+        try {
+            conflictService.prefetch(user.getId());
+        } catch (RuntimeException e) {
+            logger.warn("Could not prefetch schedule for user {}", user.getId(), e);
+        }
+    }
+
     private Task createTaskFromExtraction(TaskExtractionDTO taskData, User user) {
         try {
             System.out.println("=== CREATING TASK FROM EXTRACTION ===");
@@ -326,30 +663,71 @@ public class IntelligentChatbotService {
         }
     }
 
-    private String generateFollowUpQuestion(TaskExtractionDTO taskData, ConversationContextDTO context) {
-        if (!taskData.hasMinimumRequiredInfo()) {
-            String missingFields = taskData.getMissingFieldsAsString();
-            
-            String questionPrompt = "The user wants to create a task but is missing: " + missingFields + "\n\n" +
-                    "What we have so far:\n" +
-                    "- Title: " + (taskData.getTitle() != null ? taskData.getTitle() : "missing") + "\n" +
-                    "- Start time: " + (taskData.getStartTime() != null ? taskData.getStartTime() : "missing") + "\n" +
-                    "- End time/duration: " + (taskData.getCalculatedEndTime() != null ? "provided" : "missing") + "\n\n" +
-                    "Generate a SHORT, friendly question to get the missing information. Be specific and direct.\n" +
-                    "Examples:\n" +
-                    "- 'What should I call this task?'\n" +
-                    "- 'When would you like to start this?'\n" +
-                    "- 'How long will this take, or when should it end?'\n\n" +
-                    "Ask for only ONE missing piece at a time.";
-            
-            return geminiService.generateResponse(questionPrompt);
+    // Local templates: one question for the first missing field, echoing what we already have
+    private String followUpQuestion(TaskExtractionDTO taskData) {
+        String title = isBlank(taskData.getTitle()) ? "this task" : "\"" + taskData.getTitle() + "\"";
+        if (isBlank(taskData.getTitle())) {
+            return taskData.getStartTime() != null
+                    ? "Got it, " + describeStart(taskData.getStartTime()) + ". What should I call this task?"
+                    : "What should I call this task?";
+        }
+        if (taskData.getStartTime() == null) {
+            return "When would you like to start " + title + "?";
         }
+        return "Got it, " + title + " " + describeStart(taskData.getStartTime()) +
+                ". How long will it take, or when should it end?";
+    }
+
+    private String describeStart(LocalDateTime startTime) {
+        return "on " + startTime.format(FOLLOW_UP_DATE_FORMAT) + " at " + startTime.toLocalTime();
+    }
+
+    // The task being filled in across turns is kept in the context's collectedData
+    private TaskExtractionDTO loadDraft(ConversationContextDTO context) {
+        Object title = context.getCollectedData(DRAFT_TITLE);
+        Object start = context.getCollectedData(DRAFT_START);
+        Object end = context.getCollectedData(DRAFT_END);
+        Object duration = context.getCollectedData(DRAFT_DURATION);
+        Object description = context.getCollectedData(DRAFT_DESCRIPTION);
         
-        return "I have all the information I need. Let me create this task for you!";
+        TaskExtractionDTO draft = new TaskExtractionDTO();
+        draft.setTitle(title instanceof String ? (String) title : null);
+        draft.setStartTime(start instanceof LocalDateTime ? (LocalDateTime) start : null);
+        draft.setEndTime(end instanceof LocalDateTime ? (LocalDateTime) end : null);
+        // Snapshots restore whole numbers as Long
+        draft.setDurationMinutes(duration instanceof Number ? ((Number) duration).intValue() : null);
+        draft.setDescription(description instanceof String ? (String) description : null);
+        draft.validateAndSetMissingFields();
+        return draft;
+    }
+
+    private void saveDraft(ConversationContextDTO context, TaskExtractionDTO draft) {
+        context.addCollectedData(DRAFT_TITLE, draft.getTitle());
+        context.addCollectedData(DRAFT_START, draft.getStartTime());
+        context.addCollectedData(DRAFT_END, draft.getEndTime());
+        context.addCollectedData(DRAFT_DURATION, draft.getDurationMinutes());
+        context.addCollectedData(DRAFT_DESCRIPTION, draft.getDescription());
+        // The step names the field the last question asked for
+        context.setCurrentStep("awaiting " + draft.getMissingMandatoryFields().get(0));
     }
 
-    private String handleViewTasks(String userMessage, ConversationContextDTO context, User user) {
-        List<Task> userTasks = taskRepository.findByUserIdOrderByCreatedAtDesc(user.getId());
+    private void clearDraft(ConversationContextDTO context) {
+        context.getCollectedData().clear();
+        context.setCurrentStep("initial");
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    private Mono<String> handleViewTasks(String userMessage, ConversationContextDTO context, User user) {
+        return onBlockingScheduler(() -> formatTaskList(context, user));
+    }
+
+    private String formatTaskList(ConversationContextDTO context, User user) {
+        // One row past the page tells whether the total needs counting at all
+        List<TaskOverviewDTO> userTasks = taskRepository.findRecentOverviews(user.getId(),
+                PageRequest.of(0, TASK_OVERVIEW_SIZE + 1));
         
         if (userTasks.isEmpty()) {
             contextService.markContextComplete(context.getSessionId());
@@ -357,16 +735,17 @@ public class IntelligentChatbotService {
         }
         
         StringBuilder response = new StringBuilder("Here are your tasks:\n\n");
-        for (int i = 0; i < Math.min(userTasks.size(), 10); i++) {
-            Task task = userTasks.get(i);
+        for (int i = 0; i < Math.min(userTasks.size(), TASK_OVERVIEW_SIZE); i++) {
+            TaskOverviewDTO task = userTasks.get(i);
             response.append(String.format("%d. **%s** (%s)\n   %s\n   Priority: %s | Status: %s\n\n", 
                 i + 1, task.getTitle(), task.getType(), 
                 task.getDescription() != null ? task.getDescription() : "No description",
                 task.getPriority(), task.getStatus()));
         }
         
-        if (userTasks.size() > 10) {
-            response.append("... and ").append(userTasks.size() - 10).append(" more tasks.");
+        if (userTasks.size() > TASK_OVERVIEW_SIZE) {
+            long total = taskRepository.countByUserId(user.getId());
+            response.append("... and ").append(total - TASK_OVERVIEW_SIZE).append(" more tasks.");
         }
         
         contextService.markContextComplete(context.getSessionId());
@@ -383,17 +762,28 @@ public class IntelligentChatbotService {
         return "Task deletion functionality is being developed. For now, you can create a new task or view your existing tasks.";
     }
 
-    private String handleGeneralQuery(String userMessage, ConversationContextDTO context, User user) {
-        String generalPrompt = "You are a helpful AI assistant for MindGraph, a task management system. " +
+    private Mono<String> handleGeneralQuery(String userMessage, ConversationContextDTO context, User user) {
+        contextService.markContextComplete(context.getSessionId());
+        return geminiService.generateResponseAsync(createGeneralQueryPrompt(userMessage), GeminiCallOptions.cacheable());
+    }
+
+    private String createGeneralQueryPrompt(String userMessage) {
+        return "You are a helpful AI assistant for MindGraph, a task management system. " +
                 "Answer the user's question in a friendly and helpful way. If they seem to want to manage tasks, " +
                 "guide them towards creating, viewing, or editing tasks.\n\n" +
                 "User message: " + userMessage;
-        
-        contextService.markContextComplete(context.getSessionId());
-        return geminiService.generateResponse(generalPrompt);
     }
 
     // Helper methods
+    private ZonedDateTime now(ConversationContextDTO context) {
+        ZoneId zone = context.getTimeZone() != null ? ZoneId.of(context.getTimeZone()) : ZoneId.systemDefault();
+        return ZonedDateTime.now(zone);
+    }
+
+    private <T> Mono<T> onBlockingScheduler(Callable<T> work) {
+        return Mono.fromCallable(work).subscribeOn(Schedulers.boundedElastic());
+    }
+
     private String extractJsonFromResponse(String response) {
         // Find JSON in the response
         int start = response.indexOf('{');
@@ -0,0 +1,226 @@
+package com.mindgraph.service;
+
+import com.mindgraph.dto.ConversationContextDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Conversation contexts shared by all backend nodes through the conversation_contexts table.
+// Each row holds the ConversationContextCodec bytes, a version and an expires_at column. The
+// version is a random token picked by the writer, so a write needs no read-back to know it.
+// Each node keeps a bounded near-cache of the contexts it has seen: within the trust window an
+// entry is used as is, after that a version-only query decides whether it is still current, so
+// the full row is only read when another node has changed the session.
+@Component
+@ConditionalOnProperty(name = "chatbot.context.store", havingValue = "jdbc")
+public class JdbcConversationContextStore implements ConversationContextStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcConversationContextStore.class);
+
+    private static final String CREATE_TABLE_SQL =
+            "CREATE TABLE IF NOT EXISTS conversation_contexts (" +
+            "session_id VARCHAR(255) PRIMARY KEY, " +
+            "user_id BIGINT, " +
+            "data BYTEA NOT NULL, " +
+            "version BIGINT NOT NULL, " +
+            "expires_at TIMESTAMP NOT NULL, " +
+            "updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)";
+
+    private static final String CREATE_INDEX_SQL =
+            "CREATE INDEX IF NOT EXISTS idx_conversation_contexts_expires_at ON conversation_contexts(expires_at)";
+
+    private static final String UPDATE_SQL =
+            "UPDATE conversation_contexts SET user_id = ?, data = ?, version = ?, expires_at = ?, " +
+            "updated_at = CURRENT_TIMESTAMP WHERE session_id = ?";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO conversation_contexts (session_id, user_id, data, version, expires_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP)";
+
+    private static final String SELECT_VERSION_SQL =
+            "SELECT version FROM conversation_contexts WHERE session_id = ? AND expires_at > ?";
+
+    private static final String SELECT_ROW_SQL =
+            "SELECT data, version FROM conversation_contexts WHERE session_id = ? AND expires_at > ?";
+
+    private static final Duration EXPIRY = Duration.ofMinutes(CONTEXT_EXPIRY_MINUTES);
+
+    @Autowired
+    private ConversationContextCodec codec;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long trustWindowNanos;
+    private final int nearCacheSize;
+
+    // Access-ordered LRU, guarded by itself
+    private final LinkedHashMap<String, CachedContext> nearCache = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Counter trusted;
+    private final Counter validated;
+    private final Counter loaded;
+    private final Counter missing;
+
+    public JdbcConversationContextStore(JdbcTemplate jdbcTemplate,
+                                        @Value("${chatbot.context.jdbc.trust-window:1s}") Duration trustWindow,
+                                        @Value("${chatbot.context.jdbc.near-cache-size:10000}") int nearCacheSize,
+                                        MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.trustWindowNanos = trustWindow.toNanos();
+        this.nearCacheSize = nearCacheSize;
+
+        this.trusted = Counter.builder("chatbot.context.store.reads").tag("result", "near_cache").register(meterRegistry);
+        this.validated = Counter.builder("chatbot.context.store.reads").tag("result", "validated").register(meterRegistry);
+        this.loaded = Counter.builder("chatbot.context.store.reads").tag("result", "loaded").register(meterRegistry);
+        this.missing = Counter.builder("chatbot.context.store.reads").tag("result", "missing").register(meterRegistry);
+        Gauge.builder("chatbot.context.store.near_cache.size", this, JdbcConversationContextStore::nearCacheEntries)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void createTable() {
+        jdbcTemplate.execute(CREATE_TABLE_SQL);
+        jdbcTemplate.execute(CREATE_INDEX_SQL);
+    }
+
+    @Override
+    public ConversationContextDTO find(String sessionId) {
+        CachedContext cached = cached(sessionId);
+        if (cached != null && System.nanoTime() - cached.checkedAt < trustWindowNanos) {
+            trusted.increment();
+            return cached.context;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (cached != null) {
+            List<Long> versions = jdbcTemplate.queryForList(SELECT_VERSION_SQL, Long.class, sessionId, now);
+            if (!versions.isEmpty() && versions.get(0) == cached.version) {
+                validated.increment();
+                cache(sessionId, new CachedContext(cached.context, cached.version));
+                return cached.context;
+            }
+        }
+
+        List<CachedContext> rows = jdbcTemplate.query(SELECT_ROW_SQL, (rs, rowNum) ->
+                new CachedContext(codec.decode(ByteBuffer.wrap(rs.getBytes("data"))), rs.getLong("version")),
+                sessionId, now);
+        if (rows.isEmpty()) {
+            missing.increment();
+            evict(sessionId);
+            return null;
+        }
+        loaded.increment();
+        cache(sessionId, rows.get(0));
+        return rows.get(0).context;
+    }
+
+    @Override
+    public ConversationContextDTO getOrCreate(String sessionId) {
+        ConversationContextDTO context = find(sessionId);
+        if (context == null) {
+            // Stored right away: callers change the context in place and may not save it before
+            // the trust window ends, when find would otherwise no longer see it
+            context = new ConversationContextDTO(sessionId);
+            save(context);
+        }
+        return context;
+    }
+
+    @Override
+    public void save(ConversationContextDTO context) {
+        // History is already bounded by ConversationHistoryPolicy; keep all of it
+        byte[] data = codec.encode(context, Integer.MAX_VALUE);
+        Timestamp expiresAt = Timestamp.valueOf(context.getLastInteraction().plus(EXPIRY));
+        long version = ThreadLocalRandom.current().nextLong();
+        int updated = jdbcTemplate.update(UPDATE_SQL, context.getUserId(), data, version, expiresAt,
+                context.getSessionId());
+        if (updated == 0) {
+            try {
+                jdbcTemplate.update(INSERT_SQL, context.getSessionId(), context.getUserId(), data, version, expiresAt);
+            } catch (DuplicateKeyException e) {
+                // Another node created the row in between; this write replaces it
+                jdbcTemplate.update(UPDATE_SQL, context.getUserId(), data, version, expiresAt, context.getSessionId());
+            }
+        }
+        cache(context.getSessionId(), new CachedContext(context, version));
+    }
+
+    @Override
+    public void remove(String sessionId) {
+        evict(sessionId);
+        jdbcTemplate.update("DELETE FROM conversation_contexts WHERE session_id = ?", sessionId);
+    }
+
+    @Override
+    public void removeExpired() {
+        int deleted = jdbcTemplate.update("DELETE FROM conversation_contexts WHERE expires_at <= ?",
+                Timestamp.valueOf(LocalDateTime.now()));
+        if (deleted > 0) {
+            logger.debug("Deleted {} expired conversation context(s)", deleted);
+        }
+
+        // Near-cache entries of expired sessions would only fail validation later; drop them now
+        LocalDateTime cutoff = LocalDateTime.now().minus(EXPIRY);
+        synchronized (nearCache) {
+            nearCache.values().removeIf(cached -> cached.context.getLastInteraction().isBefore(cutoff));
+        }
+    }
+
+    public int nearCacheEntries() {
+        synchronized (nearCache) {
+            return nearCache.size();
+        }
+    }
+
+    private CachedContext cached(String sessionId) {
+        synchronized (nearCache) {
+            return nearCache.get(sessionId);
+        }
+    }
+
+    private void cache(String sessionId, CachedContext cached) {
+        synchronized (nearCache) {
+            nearCache.put(sessionId, cached);
+            Iterator<Map.Entry<String, CachedContext>> it = nearCache.entrySet().iterator();
+            while (nearCache.size() > nearCacheSize && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+    }
+
+    private void evict(String sessionId) {
+        synchronized (nearCache) {
+            nearCache.remove(sessionId);
+        }
+    }
+
+    private static final class CachedContext {
+        private final ConversationContextDTO context;
+        private final long version;
+        private final long checkedAt = System.nanoTime();
+
+        CachedContext(ConversationContextDTO context, long version) {
+            this.context = context;
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.mindgraph.service;
+
+import com.mindgraph.dto.IntentAnalysisDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// In-process intent classifier that runs before Gemini.
+// Weighted keyword phrases for each intent are compiled into an Aho-Corasick automaton with a
+// dense transition table, so a message is classified in one pass over its characters.
+// Phrases are padded with spaces and the input is normalized the same way, which makes every
+// match word-bounded ("cancel" does not fire inside "cancellation").
+@Component
+public class LocalIntentClassifier {
+
+    private static final String[] INTENTS = {"create_task", "view_tasks", "edit_task", "delete_task", "general"};
+    private static final String[] ACTIONS = {"create", "view", "edit", "delete", "answer"};
+
+    private static final int CREATE = 0;
+    private static final int VIEW = 1;
+    private static final int EDIT = 2;
+    private static final int DELETE = 3;
+    private static final int GENERAL = 4;
+
+    // a-z, 0-9, apostrophe and space (every other character is folded into space)
+    private static final int ALPHABET = 38;
+    private static final int APOSTROPHE = 36;
+    private static final int SPACE = 37;
+
+    // Smoothing added to the runner-up score; keeps single weak matches below the threshold
+    private static final double SMOOTHING = 0.5;
+
+    private final int[][] transitions;
+    private final int[][] outputs;
+    private final int[] patternIntent;
+    private final double[] patternWeight;
+    private final String[] patternText;
+
+    public LocalIntentClassifier() {
+        Map<String, double[]> phrases = new LinkedHashMap<>();
+
+        phrase(phrases, CREATE, 3.0, "create a task", "add a task", "new task", "create task", "add task",
+                "schedule a", "schedule an", "remind me to", "set up a meeting", "book a", "book an",
+                "plan a", "i need to", "i have to", "add an event");
+        phrase(phrases, CREATE, 1.5, "create", "add", "plan", "book");
+        phrase(phrases, CREATE, 1.0, "appointment", "meeting");
+
+        phrase(phrases, VIEW, 3.0, "show my tasks", "list my tasks", "what are my tasks", "view my tasks",
+                "show me my tasks", "what's on my schedule", "whats on my schedule", "task summary",
+                "what do i have", "my tasks", "my schedule", "my calendar");
+        phrase(phrases, VIEW, 1.5, "show", "list", "view", "tasks");
+
+        phrase(phrases, EDIT, 3.0, "reschedule", "move my", "change the time", "edit task", "edit the",
+                "update task", "update the", "rename");
+        phrase(phrases, EDIT, 1.5, "change", "edit", "modify", "update", "postpone");
+
+        phrase(phrases, DELETE, 3.0, "delete", "remove", "cancel my", "cancel the", "get rid of");
+        phrase(phrases, DELETE, 1.5, "cancel");
+
+        phrase(phrases, GENERAL, 3.0, "hello", "hi", "hey", "good morning", "good evening", "thanks",
+                "thank you", "productivity tips", "how are you", "who are you", "what can you do");
+        phrase(phrases, GENERAL, 1.5, "help", "tips", "advice", "why", "how");
+
+        int count = phrases.size();
+        this.patternIntent = new int[count];
+        this.patternWeight = new double[count];
+        this.patternText = new String[count];
+
+        // Build the trie
+        List<int[]> trie = new ArrayList<>();
+        List<List<Integer>> nodeOutputs = new ArrayList<>();
+        trie.add(newNode());
+        nodeOutputs.add(new ArrayList<>());
+
+        int index = 0;
+        for (Map.Entry<String, double[]> entry : phrases.entrySet()) {
+            String padded = " " + entry.getKey() + " ";
+            int node = 0;
+            for (int i = 0; i < padded.length(); i++) {
+                int symbol = symbol(padded.charAt(i));
+                if (trie.get(node)[symbol] < 0) {
+                    trie.get(node)[symbol] = trie.size();
+                    trie.add(newNode());
+                    nodeOutputs.add(new ArrayList<>());
+                }
+                node = trie.get(node)[symbol];
+            }
+            nodeOutputs.get(node).add(index);
+            patternText[index] = entry.getKey();
+            patternIntent[index] = (int) entry.getValue()[0];
+            patternWeight[index] = entry.getValue()[1];
+            index++;
+        }
+
+        // Breadth-first pass: fill failure links, turn the trie into a complete DFA and
+        // merge the outputs of each node's failure chain into the node itself
+        int[][] delta = trie.toArray(new int[0][]);
+        int[] failure = new int[delta.length];
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 0; symbol < ALPHABET; symbol++) {
+            int child = delta[0][symbol];
+            if (child < 0) {
+                delta[0][symbol] = 0;
+            } else {
+                failure[child] = 0;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            nodeOutputs.get(node).addAll(nodeOutputs.get(failure[node]));
+            for (int symbol = 0; symbol < ALPHABET; symbol++) {
+                int child = delta[node][symbol];
+                if (child < 0) {
+                    delta[node][symbol] = delta[failure[node]][symbol];
+                } else {
+                    failure[child] = delta[failure[node]][symbol];
+                    queue.add(child);
+                }
+            }
+        }
+
+        this.transitions = delta;
+        this.outputs = new int[delta.length][];
+        for (int node = 0; node < delta.length; node++) {
+            outputs[node] = nodeOutputs.get(node).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    public IntentAnalysisDTO classify(String message) {
+        double[] scores = new double[INTENTS.length];
+        List<String> matched = new ArrayList<>();
+
+        int node = step(0, ' ');
+        boolean lastWasSpace = true;
+        for (int i = 0; i < message.length(); i++) {
+            int symbol = symbol(Character.toLowerCase(message.charAt(i)));
+            // Collapse runs of separators so padded phrases still line up
+            if (symbol == SPACE) {
+                if (lastWasSpace) {
+                    continue;
+                }
+                lastWasSpace = true;
+            } else {
+                lastWasSpace = false;
+            }
+            node = transitions[node][symbol];
+            collect(node, scores, matched);
+        }
+        if (!lastWasSpace) {
+            node = transitions[node][SPACE];
+            collect(node, scores, matched);
+        }
+
+        int best = GENERAL;
+        double bestScore = 0;
+        double runnerUp = 0;
+        for (int intent = 0; intent < scores.length; intent++) {
+            if (scores[intent] > bestScore) {
+                runnerUp = bestScore;
+                bestScore = scores[intent];
+                best = intent;
+            } else if (scores[intent] > runnerUp) {
+                runnerUp = scores[intent];
+            }
+        }
+
+        double confidence = bestScore == 0 ? 0.0 : bestScore / (bestScore + runnerUp + SMOOTHING);
+
+        IntentAnalysisDTO result = new IntentAnalysisDTO(INTENTS[best], confidence, ACTIONS[best]);
+        result.setEntity("task");
+        result.setExplanation(matched.isEmpty()
+                ? "No local phrase matched"
+                : "Matched local phrases: " + String.join(", ", matched));
+        return result;
+    }
+
+    private int step(int node, char c) {
+        return transitions[node][symbol(c)];
+    }
+
+    private void collect(int node, double[] scores, List<String> matched) {
+        for (int pattern : outputs[node]) {
+            scores[patternIntent[pattern]] += patternWeight[pattern];
+            matched.add(patternText[pattern]);
+        }
+    }
+
+    private static void phrase(Map<String, double[]> phrases, int intent, double weight, String... texts) {
+        for (String text : texts) {
+            phrases.put(text, new double[]{intent, weight});
+        }
+    }
+
+    private static int[] newNode() {
+        int[] node = new int[ALPHABET];
+        Arrays.fill(node, -1);
+        return node;
+    }
+
+    private static int symbol(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a';
+        }
+        if (c >= '0' && c <= '9') {
+            return 26 + (c - '0');
+        }
+        if (c == '\'' || c == '’') {
+            return APOSTROPHE;
+        }
+        return SPACE;
+    }
+}
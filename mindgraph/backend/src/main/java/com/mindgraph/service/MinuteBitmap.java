@@ -0,0 +1,94 @@
+package com.mindgraph.service;
+
+// One day as 1440 bits in a long[23], bit m set when minute m is busy. Ranges are set and
+// combined a word at a time, and free runs are found by skipping whole words of busy or free
+// minutes with numberOfTrailingZeros.
+final class MinuteBitmap {
+
+    static final int MINUTES = 24 * 60;
+    static final int WORDS = (MINUTES + 63) / 64;
+
+    // The bits past minute 1439 in the last word are always set, so no run extends past the day
+    private static final long TAIL = -1L << (MINUTES % 64);
+
+    private MinuteBitmap() {
+    }
+
+    static long[] empty() {
+        long[] words = new long[WORDS];
+        words[WORDS - 1] = TAIL;
+        return words;
+    }
+
+    // Marks minutes [from, to) busy; the range is clipped to the day
+    static void setRange(long[] words, int from, int to) {
+        from = Math.max(0, from);
+        to = Math.min(MINUTES, to);
+        if (from >= to) {
+            return;
+        }
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (first == last) {
+            words[first] |= firstMask & lastMask;
+            return;
+        }
+        words[first] |= firstMask;
+        for (int i = first + 1; i < last; i++) {
+            words[i] = -1L;
+        }
+        words[last] |= lastMask;
+    }
+
+    static void or(long[] into, long[] other) {
+        for (int i = 0; i < WORDS; i++) {
+            into[i] |= other[i];
+        }
+    }
+
+    // Start of the first free run of at least minLength minutes at or after `from`, or -1
+    static int findFreeRun(long[] words, int from, int minLength) {
+        int start = nextFree(words, from);
+        while (start >= 0) {
+            int end = nextBusy(words, start);
+            if (end - start >= minLength) {
+                return start;
+            }
+            start = nextFree(words, end);
+        }
+        return -1;
+    }
+
+    // First busy minute at or after `from`; MINUTES when the rest of the day is free
+    static int nextBusy(long[] words, int from) {
+        if (from >= MINUTES) {
+            return MINUTES;
+        }
+        int i = from >>> 6;
+        long word = words[i] & (-1L << from);
+        while (word == 0) {
+            // The tail bits guarantee a set bit in the last word
+            word = words[++i];
+        }
+        return Math.min(MINUTES, (i << 6) + Long.numberOfTrailingZeros(word));
+    }
+
+    // First free minute at or after `from`, or -1
+    static int nextFree(long[] words, int from) {
+        if (from >= MINUTES) {
+            return -1;
+        }
+        int i = from >>> 6;
+        long word = ~words[i] & (-1L << from);
+        while (word == 0) {
+            if (++i == WORDS) {
+                return -1;
+            }
+            word = ~words[i];
+        }
+        int minute = (i << 6) + Long.numberOfTrailingZeros(word);
+        return minute < MINUTES ? minute : -1;
+    }
+}
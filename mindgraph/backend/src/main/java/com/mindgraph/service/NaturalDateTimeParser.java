@@ -0,0 +1,450 @@
+package com.mindgraph.service;
+
+import com.mindgraph.dto.TaskExtractionDTO;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Deterministic parser for the date/time phrasings users type when creating tasks:
+// relative dates ("tomorrow", "next friday", "in 3 days"), explicit dates ("sept 20", "2025-09-20"),
+// clock times ("3pm", "15:30", "noon"), ranges ("from 2pm to 4pm", "2-4pm"), durations
+// ("for 2 hours", "for 90 minutes") and parts of the day ("morning" = 09:00).
+// Everything is resolved against the caller's clock and zone. Whatever is left once the
+// temporal phrases and command words are removed becomes the title.
+@Component
+public class NaturalDateTimeParser {
+
+    private static final String TIME = "(\\d{1,2})(?::(\\d{2}))?\\s*(am|pm|a\\.m\\.|p\\.m\\.)?";
+
+    private static final Pattern QUOTED_TITLE = Pattern.compile("[\"“]([^\"”]{2,})[\"”]");
+
+    private static final Pattern RANGE = Pattern.compile(
+            "\\b(?:from\\s+|between\\s+)?" + TIME + "\\s*(?:-|–|to|until|till|and)\\s*" + TIME + "(?![\\w:])",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern UNTIL = Pattern.compile(
+            "\\b(?:until|till)\\s+" + TIME + "(?![\\w:])", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern DURATION = Pattern.compile(
+            "\\b(?:for\\s+)?(\\d+(?:\\.\\d+)?|(?:an?|one|two|three|four|half\\s+an?)(?=\\s))\\s*" +
+            "(hours?|hrs?|h|minutes?|mins?)\\b(?:\\s*(?:and\\s+)?(\\d+)\\s*(?:minutes?|mins?)\\b)?",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern CLOCK_TIME = Pattern.compile(
+            "\\b(?:at\\s+)?(\\d{1,2})(?::(\\d{2}))?\\s*(am|pm|a\\.m\\.|p\\.m\\.)(?!\\w)" +
+            "|\\b(?:at\\s+)?(\\d{1,2}):(\\d{2})\\b" +
+            "|\\bat\\s+(\\d{1,2})\\b(?!\\s*(?:hours?|hrs?|minutes?|mins?|days?|weeks?))" +
+            "|\\b(?:at\\s+)?(noon|midday|midnight)\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern PART_OF_DAY = Pattern.compile(
+            "\\b(?:in\\s+the\\s+|this\\s+)?(morning|afternoon|evening|tonight|night)\\b", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern RELATIVE_DAY = Pattern.compile(
+            "\\b(?:the\\s+)?(day\\s+after\\s+tomorrow|today|tomorrow|tmrw|tonight)\\b", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern IN_DAYS = Pattern.compile(
+            "\\bin\\s+(\\d+|a|an|one|two|three|four|five|six|seven)\\s+(days?|weeks?)\\b", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern WEEKDAY = Pattern.compile(
+            "\\b(?:on\\s+)?(?:(next|this|coming)\\s+)?" +
+            "(monday|tuesday|wednesday|thursday|friday|saturday|sunday|mon|tue|tues|wed|thu|thur|thurs|fri|sat|sun)\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern NEXT_WEEK = Pattern.compile("\\bnext\\s+week\\b", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern ISO_DATE = Pattern.compile(
+            "\\b(?:on\\s+)?(\\d{4})-(\\d{1,2})-(\\d{1,2})\\b", Pattern.CASE_INSENSITIVE);
+
+    private static final String MONTH = "(jan(?:uary)?|feb(?:ruary)?|mar(?:ch)?|apr(?:il)?|may|june?|july?|" +
+            "aug(?:ust)?|sep(?:t(?:ember)?)?|oct(?:ober)?|nov(?:ember)?|dec(?:ember)?)\\.?";
+
+    private static final Pattern MONTH_DAY = Pattern.compile(
+            "\\b(?:on\\s+)?" + MONTH + "\\s+(\\d{1,2})(?:st|nd|rd|th)?\\b", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern DAY_MONTH = Pattern.compile(
+            "\\b(?:on\\s+)?(?:the\\s+)?(\\d{1,2})(?:st|nd|rd|th)?\\s+(?:of\\s+)?" + MONTH + "\\b", Pattern.CASE_INSENSITIVE);
+
+    // Command words that precede the actual task name ("schedule a call with Sam" -> "call with Sam")
+    private static final Pattern LEADING_COMMAND = Pattern.compile(
+            "^(?:(?:please|hey|hi|ok|okay|can you|could you|would you|i want to|i'd like to|i would like to|" +
+            "i need to|i have to|i must|let's|lets|remind me to|help me|" +
+            "schedule|create|add|book|plan|set up|setup|put|make|block|reserve)\\b[\\s,]*)+" +
+            "(?:(?:a|an|the|my)\\s+)?(?:(?:new\\s+)?(?:task|event|reminder|appointment|slot)\\b\\s*)?" +
+            "(?:(?:to|for|called|named|titled|about)\\b\\s*)?",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern TRAILING_FILLER = Pattern.compile(
+            "(?:\\s+(?:on|at|for|from|by|in|the|this|next|and|to|please))+\\s*$", Pattern.CASE_INSENSITIVE);
+
+    public TaskExtractionDTO parse(String message, ZonedDateTime now) {
+        TaskExtractionDTO result = new TaskExtractionDTO();
+        List<int[]> consumed = new ArrayList<>();
+        String text = message.trim();
+
+        LocalDate today = now.toLocalDate();
+        LocalDate date = parseDate(text, now, consumed);
+        boolean explicitDate = date != null;
+
+        String partOfDay = null;
+        Matcher partMatcher = PART_OF_DAY.matcher(text);
+        if (partMatcher.find()) {
+            partOfDay = partMatcher.group(1).toLowerCase(Locale.ROOT);
+            // "tonight" is also a relative day and may already be consumed as the date
+            if (!overlaps(consumed, partMatcher.start(), partMatcher.end())) {
+                consumed.add(new int[]{partMatcher.start(), partMatcher.end()});
+            }
+        }
+
+        LocalTime startTime = null;
+        LocalTime endTime = null;
+        Integer durationMinutes = null;
+
+        // Ranges first: "from 2pm to 4pm", "2-4pm"; at least one side must look like a clock time
+        Matcher rangeMatcher = RANGE.matcher(text);
+        while (rangeMatcher.find()) {
+            boolean clockLike = rangeMatcher.group(3) != null || rangeMatcher.group(6) != null
+                    || rangeMatcher.group(2) != null || rangeMatcher.group(5) != null
+                    || rangeMatcher.group().toLowerCase(Locale.ROOT).matches("^(from|between)\\b.*");
+            if (!clockLike || overlaps(consumed, rangeMatcher.start(), rangeMatcher.end())) {
+                continue;
+            }
+            String endMeridiem = rangeMatcher.group(6);
+            String startMeridiem = rangeMatcher.group(3) != null ? rangeMatcher.group(3) : endMeridiem;
+            LocalTime end = toTime(rangeMatcher.group(4), rangeMatcher.group(5), endMeridiem, partOfDay);
+            LocalTime start = toTime(rangeMatcher.group(1), rangeMatcher.group(2), startMeridiem, partOfDay);
+            if (start == null || end == null) {
+                continue;
+            }
+            // "11 to 1pm": the end's meridiem made the start later than the end
+            if (!start.isBefore(end) && rangeMatcher.group(3) == null && start.getHour() >= 12) {
+                start = start.minusHours(12);
+            }
+            startTime = start;
+            endTime = end;
+            consumed.add(new int[]{rangeMatcher.start(), rangeMatcher.end()});
+            break;
+        }
+
+        if (startTime == null) {
+            Matcher clockMatcher = CLOCK_TIME.matcher(text);
+            while (clockMatcher.find()) {
+                if (overlaps(consumed, clockMatcher.start(), clockMatcher.end())) {
+                    continue;
+                }
+                LocalTime parsed = parseClockMatch(clockMatcher, partOfDay);
+                if (parsed != null) {
+                    startTime = parsed;
+                    consumed.add(new int[]{clockMatcher.start(), clockMatcher.end()});
+                    break;
+                }
+            }
+        }
+
+        if (startTime != null && endTime == null) {
+            Matcher untilMatcher = UNTIL.matcher(text);
+            while (untilMatcher.find()) {
+                if (overlaps(consumed, untilMatcher.start(), untilMatcher.end())) {
+                    continue;
+                }
+                String meridiem = untilMatcher.group(3);
+                LocalTime end = toTime(untilMatcher.group(1), untilMatcher.group(2), meridiem, partOfDay);
+                if (end != null) {
+                    endTime = end;
+                    consumed.add(new int[]{untilMatcher.start(), untilMatcher.end()});
+                    break;
+                }
+            }
+        }
+
+        Matcher durationMatcher = DURATION.matcher(text);
+        while (durationMatcher.find()) {
+            if (overlaps(consumed, durationMatcher.start(), durationMatcher.end())) {
+                continue;
+            }
+            Integer minutes = toMinutes(durationMatcher.group(1), durationMatcher.group(2), durationMatcher.group(3));
+            if (minutes != null && minutes > 0) {
+                durationMinutes = minutes;
+                consumed.add(new int[]{durationMatcher.start(), durationMatcher.end()});
+                break;
+            }
+        }
+
+        // A part of the day stands in for a clock time ("tomorrow morning" = 09:00)
+        if (startTime == null && partOfDay != null) {
+            startTime = defaultTimeFor(partOfDay);
+        }
+        if ("tonight".equals(partOfDay) && date == null) {
+            date = today;
+            explicitDate = true;
+        }
+
+        if (startTime != null) {
+            if (date == null) {
+                // A bare time that has already passed today means the next occurrence
+                date = startTime.isAfter(now.toLocalTime()) ? today : today.plusDays(1);
+            }
+            LocalDateTime start = LocalDateTime.of(date, startTime);
+            result.setStartTime(start);
+            if (endTime != null) {
+                LocalDateTime end = LocalDateTime.of(date, endTime);
+                // Ranges that cross midnight end on the following day
+                result.setEndTime(end.isAfter(start) ? end : end.plusDays(1));
+            }
+        }
+        if (durationMinutes != null && result.getEndTime() == null) {
+            result.setDurationMinutes(durationMinutes);
+        }
+
+        result.setTitle(extractTitle(text, consumed));
+        result.setExtractedInfo("Parsed locally" + (explicitDate ? " (explicit date)" : ""));
+        result.validateAndSetMissingFields();
+        return result;
+    }
+
+    private LocalDate parseDate(String text, ZonedDateTime now, List<int[]> consumed) {
+        LocalDate today = now.toLocalDate();
+
+        Matcher matcher = ISO_DATE.matcher(text);
+        if (matcher.find()) {
+            try {
+                LocalDate date = LocalDate.of(Integer.parseInt(matcher.group(1)),
+                        Integer.parseInt(matcher.group(2)), Integer.parseInt(matcher.group(3)));
+                consumed.add(new int[]{matcher.start(), matcher.end()});
+                return date;
+            } catch (RuntimeException ignored) {
+                // Not a real calendar date; fall through to the other forms
+            }
+        }
+
+        matcher = RELATIVE_DAY.matcher(text);
+        if (matcher.find()) {
+            consumed.add(new int[]{matcher.start(), matcher.end()});
+            String word = matcher.group(1).toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+            switch (word) {
+                case "tomorrow":
+                case "tmrw":
+                    return today.plusDays(1);
+                case "day after tomorrow":
+                    return today.plusDays(2);
+                default:
+                    return today;
+            }
+        }
+
+        matcher = IN_DAYS.matcher(text);
+        if (matcher.find()) {
+            consumed.add(new int[]{matcher.start(), matcher.end()});
+            int amount = toNumber(matcher.group(1));
+            return matcher.group(2).toLowerCase(Locale.ROOT).startsWith("week")
+                    ? today.plusWeeks(amount)
+                    : today.plusDays(amount);
+        }
+
+        matcher = WEEKDAY.matcher(text);
+        if (matcher.find()) {
+            consumed.add(new int[]{matcher.start(), matcher.end()});
+            DayOfWeek day = toDayOfWeek(matcher.group(2));
+            String qualifier = matcher.group(1) != null ? matcher.group(1).toLowerCase(Locale.ROOT) : "";
+            // "next friday" is the upcoming friday after today; a bare weekday may be today
+            return "next".equals(qualifier)
+                    ? today.with(TemporalAdjusters.next(day))
+                    : today.with(TemporalAdjusters.nextOrSame(day));
+        }
+
+        matcher = NEXT_WEEK.matcher(text);
+        if (matcher.find()) {
+            consumed.add(new int[]{matcher.start(), matcher.end()});
+            return today.with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+        }
+
+        matcher = MONTH_DAY.matcher(text);
+        if (matcher.find()) {
+            LocalDate date = toCalendarDate(today, matcher.group(1), matcher.group(2));
+            if (date != null) {
+                consumed.add(new int[]{matcher.start(), matcher.end()});
+                return date;
+            }
+        }
+
+        matcher = DAY_MONTH.matcher(text);
+        if (matcher.find()) {
+            LocalDate date = toCalendarDate(today, matcher.group(2), matcher.group(1));
+            if (date != null) {
+                consumed.add(new int[]{matcher.start(), matcher.end()});
+                return date;
+            }
+        }
+        return null;
+    }
+
+    private LocalTime parseClockMatch(Matcher matcher, String partOfDay) {
+        if (matcher.group(1) != null) {
+            return toTime(matcher.group(1), matcher.group(2), matcher.group(3), partOfDay);
+        }
+        if (matcher.group(4) != null) {
+            return toTime(matcher.group(4), matcher.group(5), null, partOfDay);
+        }
+        if (matcher.group(6) != null) {
+            return toTime(matcher.group(6), null, null, partOfDay);
+        }
+        String word = matcher.group(7).toLowerCase(Locale.ROOT);
+        return "midnight".equals(word) ? LocalTime.MIDNIGHT : LocalTime.NOON;
+    }
+
+    private LocalTime toTime(String hourText, String minuteText, String meridiem, String partOfDay) {
+        int hour = Integer.parseInt(hourText);
+        int minute = minuteText != null ? Integer.parseInt(minuteText) : 0;
+        if (hour > 23 || minute > 59) {
+            return null;
+        }
+        if (meridiem != null) {
+            if (hour > 12 || hour == 0) {
+                return null;
+            }
+            boolean pm = meridiem.toLowerCase(Locale.ROOT).startsWith("p");
+            hour = hour % 12 + (pm ? 12 : 0);
+        } else if (hour >= 1 && hour <= 12) {
+            hour = inferMeridiem(hour, partOfDay);
+        }
+        return LocalTime.of(hour, minute);
+    }
+
+    // Hours without am/pm: follow the part of the day if given, else assume working hours
+    private int inferMeridiem(int hour, String partOfDay) {
+        if (partOfDay != null) {
+            return "morning".equals(partOfDay) || hour == 12 ? hour : hour + 12;
+        }
+        return hour <= 7 ? hour + 12 : hour;
+    }
+
+    private LocalTime defaultTimeFor(String partOfDay) {
+        switch (partOfDay) {
+            case "morning":
+                return LocalTime.of(9, 0);
+            case "afternoon":
+                return LocalTime.of(14, 0);
+            case "evening":
+                return LocalTime.of(18, 0);
+            default:
+                return LocalTime.of(20, 0);
+        }
+    }
+
+    private Integer toMinutes(String amountText, String unit, String extraMinutes) {
+        String amount = amountText.toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+        double value;
+        if (amount.startsWith("half")) {
+            value = 0.5;
+        } else if (amount.matches("\\d+(\\.\\d+)?")) {
+            value = Double.parseDouble(amount);
+        } else {
+            value = toNumber(amount);
+        }
+        boolean hours = unit.toLowerCase(Locale.ROOT).startsWith("h");
+        int minutes = (int) Math.round(hours ? value * 60 : value);
+        if (extraMinutes != null) {
+            minutes += Integer.parseInt(extraMinutes);
+        }
+        // Guard against "at 3 pm for 2" style false positives producing absurd values
+        return minutes <= 24 * 60 ? minutes : null;
+    }
+
+    private int toNumber(String word) {
+        switch (word.toLowerCase(Locale.ROOT)) {
+            case "a":
+            case "an":
+            case "one":
+                return 1;
+            case "two":
+                return 2;
+            case "three":
+                return 3;
+            case "four":
+                return 4;
+            case "five":
+                return 5;
+            case "six":
+                return 6;
+            case "seven":
+                return 7;
+            default:
+                return Integer.parseInt(word);
+        }
+    }
+
+    private DayOfWeek toDayOfWeek(String text) {
+        String prefix = text.toLowerCase(Locale.ROOT).substring(0, 3);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (day.name().toLowerCase(Locale.ROOT).startsWith(prefix)) {
+                return day;
+            }
+        }
+        throw new IllegalArgumentException("Unknown weekday: " + text);
+    }
+
+    private LocalDate toCalendarDate(LocalDate today, String monthText, String dayText) {
+        String prefix = monthText.toLowerCase(Locale.ROOT).substring(0, 3);
+        int month = -1;
+        String[] months = {"jan", "feb", "mar", "apr", "may", "jun", "jul", "aug", "sep", "oct", "nov", "dec"};
+        for (int i = 0; i < months.length; i++) {
+            if (months[i].equals(prefix)) {
+                month = i + 1;
+            }
+        }
+        try {
+            LocalDate date = LocalDate.of(today.getYear(), month, Integer.parseInt(dayText));
+            // Dates without a year that already passed refer to next year
+            return date.isBefore(today) ? date.plusYears(1) : date;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private boolean overlaps(List<int[]> consumed, int start, int end) {
+        for (int[] span : consumed) {
+            if (start < span[1] && end > span[0]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String extractTitle(String text, List<int[]> consumed) {
+        Matcher quoted = QUOTED_TITLE.matcher(text);
+        if (quoted.find()) {
+            return quoted.group(1).trim();
+        }
+
+        // Blanked in place, so spans that overlap cannot shift each other
+        StringBuilder remainder = new StringBuilder(text);
+        for (int[] span : consumed) {
+            for (int i = span[0]; i < span[1]; i++) {
+                remainder.setCharAt(i, ' ');
+            }
+        }
+
+        String title = remainder.toString()
+                .replaceAll("[!?.]+$", "")
+                .replaceAll("\\s*,\\s*", " ")
+                .replaceAll("\\s+", " ")
+                .trim();
+        title = LEADING_COMMAND.matcher(title).replaceFirst("");
+        title = TRAILING_FILLER.matcher(title).replaceFirst("").trim();
+
+        if (title.length() < 2 || !title.matches(".*\\p{L}.*")) {
+            return null;
+        }
+        return Character.toUpperCase(title.charAt(0)) + title.substring(1);
+    }
+}
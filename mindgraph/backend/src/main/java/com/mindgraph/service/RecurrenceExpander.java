@@ -0,0 +1,291 @@
+package com.mindgraph.service;
+
+import com.mindgraph.dto.EventDTO;
+import com.mindgraph.entity.RecurrencePattern;
+import com.mindgraph.repository.EventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Expands recurring events (isRecurring with a RecurrencePattern) into their occurrences in a
+// time window. Each series is walked by a small cursor that computes the n-th occurrence directly
+// from the series start, jumping straight to the window; the cursors of all series are merged in
+// start order through a heap, and occurrences are produced one at a time as the caller pulls them.
+// Per user, the series definitions are cached, and so are the last few windows whose expansion
+// was small enough to keep; both are dropped when any of the user's events changes.
+// Series have no end date, so every window is bounded by the caller.
+@Component
+public class RecurrenceExpander {
+
+    private static final long DAY_SECONDS = 86_400L;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    private final Map<Long, UserSeries> cache = new ConcurrentHashMap<>();
+    private final int cachedWindowsPerUser;
+    private final int maxCachedOccurrences;
+    private final long idleTimeoutNanos;
+
+    private final Counter windowHits;
+    private final Counter windowMisses;
+
+    public RecurrenceExpander(@Value("${schedule.recurrence.cached-windows-per-user:8}") int cachedWindowsPerUser,
+                              @Value("${schedule.recurrence.max-cached-occurrences:2000}") int maxCachedOccurrences,
+                              @Value("${schedule.recurrence.idle-timeout:30m}") Duration idleTimeout,
+                              MeterRegistry meterRegistry) {
+        this.cachedWindowsPerUser = cachedWindowsPerUser;
+        this.maxCachedOccurrences = maxCachedOccurrences;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+
+        this.windowHits = Counter.builder("schedule.recurrence.windows").tag("result", "hit").register(meterRegistry);
+        this.windowMisses = Counter.builder("schedule.recurrence.windows").tag("result", "miss").register(meterRegistry);
+    }
+
+    // Occurrences overlapping [start, end) of all the user's series, in start order. Each one is
+    // a copy of its series with the occurrence's times; the id stays the series id.
+    public Iterator<EventDTO> occurrences(Long userId, LocalDateTime start, LocalDateTime end) {
+        UserSeries series = series(userId);
+        Window window = new Window(start, end);
+        List<EventDTO> cached;
+        synchronized (series) {
+            cached = series.windows.get(window);
+        }
+        if (cached != null) {
+            windowHits.increment();
+            return cached.iterator();
+        }
+        windowMisses.increment();
+        return new RecordingIterator(series, window, new MergedOccurrences(series.definitions, start, end));
+    }
+
+    public boolean hasSeries(Long userId) {
+        return !series(userId).definitions.isEmpty();
+    }
+
+    // Ahead of listeners that rebuild from the expanded occurrences
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onScheduleChanged(ScheduleChangedEvent event) {
+        if (ScheduleChangedEvent.EVENT.equals(event.getType())) {
+            cache.remove(event.getUserId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${schedule.conflicts.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        cache.values().removeIf(series -> now - series.lastAccess > idleTimeoutNanos);
+    }
+
+    private UserSeries series(Long userId) {
+        UserSeries series = cache.computeIfAbsent(userId,
+                id -> new UserSeries(eventRepository.findRecurringSeries(id), cachedWindowsPerUser));
+        series.lastAccess = System.nanoTime();
+        return series;
+    }
+
+    private static long seconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime dateTime(long seconds) {
+        return LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC);
+    }
+
+    // Walks one series. Daily and weekly occurrences are plain second arithmetic; monthly and
+    // yearly ones are computed from the series start each time, so the 31st stays the 31st in
+    // months that have one (and is clamped to the month's last day in those that do not).
+    private static final class SeriesCursor {
+        private final EventDTO series;
+        private final LocalDateTime base;
+        private final long baseSeconds;
+        private final long durationSeconds;
+        private final long periodSeconds;
+        private final int periodMonths;
+        private final long windowEnd;
+        private long index;
+        private long start;
+
+        SeriesCursor(EventDTO series, long windowStart, long windowEnd) {
+            this.series = series;
+            this.base = series.getStartTime();
+            this.baseSeconds = seconds(base);
+            this.durationSeconds = seconds(series.getEndTime()) - baseSeconds;
+            this.windowEnd = windowEnd;
+            RecurrencePattern pattern = series.getRecurrencePattern();
+            this.periodSeconds = pattern == RecurrencePattern.DAILY ? DAY_SECONDS
+                    : pattern == RecurrencePattern.WEEKLY ? 7 * DAY_SECONDS : 0;
+            this.periodMonths = pattern == RecurrencePattern.MONTHLY ? 1 : pattern == RecurrencePattern.YEARLY ? 12 : 0;
+
+            // First occurrence that ends after the window starts: end_n = base + n * period + duration
+            long firstEndingAfter = windowStart - durationSeconds;
+            if (periodSeconds > 0) {
+                index = Math.max(0, Math.floorDiv(firstEndingAfter - baseSeconds, periodSeconds) + 1);
+            } else {
+                long months = ChronoUnit.MONTHS.between(base, dateTime(firstEndingAfter));
+                index = Math.max(0, months / periodMonths - 1);
+            }
+            start = startOf(index);
+            while (start + durationSeconds <= windowStart) {
+                start = startOf(++index);
+            }
+        }
+
+        boolean hasCurrent() {
+            return start < windowEnd;
+        }
+
+        void advance() {
+            start = startOf(++index);
+        }
+
+        EventDTO current() {
+            return new EventDTO(series.getId(), series.getTitle(), series.getDescription(), dateTime(start),
+                    dateTime(start + durationSeconds), series.getType(), series.getLocation(), series.getIsAllDay(),
+                    series.getIsRecurring(), series.getRecurrencePattern(), series.getReminderMinutesBefore(),
+                    series.getCreatedAt(), series.getUpdatedAt());
+        }
+
+        private long startOf(long n) {
+            if (periodSeconds > 0) {
+                return baseSeconds + n * periodSeconds;
+            }
+            return seconds(base.plusMonths(n * periodMonths));
+        }
+    }
+
+    // Heap merge of the series cursors: the next occurrence overall is always at the top
+    private static final class MergedOccurrences implements Iterator<EventDTO> {
+        private final PriorityQueue<SeriesCursor> heap;
+
+        MergedOccurrences(List<EventDTO> definitions, LocalDateTime start, LocalDateTime end) {
+            heap = new PriorityQueue<>(Math.max(1, definitions.size()),
+                    (a, b) -> a.start != b.start ? Long.compare(a.start, b.start) : Long.compare(a.series.getId(), b.series.getId()));
+            long windowStart = seconds(start);
+            long windowEnd = seconds(end);
+            for (EventDTO definition : definitions) {
+                SeriesCursor cursor = new SeriesCursor(definition, windowStart, windowEnd);
+                if (cursor.hasCurrent()) {
+                    heap.add(cursor);
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heap.isEmpty();
+        }
+
+        @Override
+        public EventDTO next() {
+            SeriesCursor cursor = heap.poll();
+            if (cursor == null) {
+                throw new NoSuchElementException();
+            }
+            EventDTO occurrence = cursor.current();
+            cursor.advance();
+            if (cursor.hasCurrent()) {
+                heap.add(cursor);
+            }
+            return occurrence;
+        }
+    }
+
+    // Passes occurrences through while keeping a copy; a window that is read to the end with no
+    // more than maxCachedOccurrences occurrences is cached, a larger one is never held
+    private final class RecordingIterator implements Iterator<EventDTO> {
+        private final UserSeries series;
+        private final Window window;
+        private final Iterator<EventDTO> source;
+        private List<EventDTO> recorded = new ArrayList<>();
+
+        RecordingIterator(UserSeries series, Window window, Iterator<EventDTO> source) {
+            this.series = series;
+            this.window = window;
+            this.source = source;
+        }
+
+        @Override
+        public boolean hasNext() {
+            boolean hasNext = source.hasNext();
+            if (!hasNext && recorded != null) {
+                synchronized (series) {
+                    series.windows.put(window, Collections.unmodifiableList(recorded));
+                }
+                recorded = null;
+            }
+            return hasNext;
+        }
+
+        @Override
+        public EventDTO next() {
+            EventDTO occurrence = source.next();
+            if (recorded != null) {
+                if (recorded.size() < maxCachedOccurrences) {
+                    recorded.add(occurrence);
+                } else {
+                    recorded = null;
+                }
+            }
+            return occurrence;
+        }
+    }
+
+    private static final class UserSeries {
+        private final List<EventDTO> definitions;
+        // Access-ordered LRU of expanded windows, guarded by this
+        private final Map<Window, List<EventDTO>> windows;
+        private volatile long lastAccess;
+
+        UserSeries(List<EventDTO> definitions, int maxWindows) {
+            this.definitions = definitions;
+            this.windows = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Window, List<EventDTO>> eldest) {
+                    return size() > maxWindows;
+                }
+            };
+        }
+    }
+
+    private static final class Window {
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+
+        Window(LocalDateTime start, LocalDateTime end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Window && ((Window) o).start.equals(start) && ((Window) o).end.equals(end);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * start.hashCode() + end.hashCode();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.mindgraph.service;
+
+import com.mindgraph.dto.ScheduleConflictDTO;
+import com.mindgraph.entity.Event;
+import com.mindgraph.entity.Task;
+import com.mindgraph.entity.TaskStatus;
+
+// Published by TaskService and EventService whenever an item's time on a user's schedule may
+// have changed. item is the new state, or null when the item no longer occupies any time
+// (deleted, unscheduled, completed or cancelled) or is a recurring series, whose occurrences
+// RecurrenceExpander provides.
+public class ScheduleChangedEvent {
+
+    public static final String EVENT = "EVENT";
+    public static final String TASK = "TASK";
+
+    private final Long userId;
+    private final String type;
+    private final Long itemId;
+    private final ScheduleConflictDTO item;
+
+    private ScheduleChangedEvent(Long userId, String type, Long itemId, ScheduleConflictDTO item) {
+        this.userId = userId;
+        this.type = type;
+        this.itemId = itemId;
+        this.item = item;
+    }
+
+    public static ScheduleChangedEvent of(Event event) {
+        boolean recurring = Boolean.TRUE.equals(event.getIsRecurring()) && event.getRecurrencePattern() != null;
+        return new ScheduleChangedEvent(event.getUser().getId(), EVENT, event.getId(), recurring
+                ? null
+                : new ScheduleConflictDTO(EVENT, event.getId(), event.getTitle(), event.getStartTime(), event.getEndTime()));
+    }
+
+    public static ScheduleChangedEvent of(Task task) {
+        boolean occupiesTime = task.getScheduledStartTime() != null && task.getScheduledEndTime() != null
+                && task.getStatus() != TaskStatus.COMPLETED && task.getStatus() != TaskStatus.CANCELLED;
+        return new ScheduleChangedEvent(task.getUser().getId(), TASK, task.getId(), occupiesTime
+                ? new ScheduleConflictDTO(TASK, task.getId(), task.getTitle(),
+                        task.getScheduledStartTime(), task.getScheduledEndTime())
+                : null);
+    }
+
+    public static ScheduleChangedEvent removed(Long userId, String type, Long itemId) {
+        return new ScheduleChangedEvent(userId, type, itemId, null);
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public ScheduleConflictDTO getItem() {
+        return item;
+    }
+}
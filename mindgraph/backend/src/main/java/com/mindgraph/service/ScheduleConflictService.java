@@ -0,0 +1,227 @@
+package com.mindgraph.service;
+
+import com.mindgraph.dto.EventDTO;
+import com.mindgraph.dto.ProposedSlotDTO;
+import com.mindgraph.dto.ScheduleConflictDTO;
+import com.mindgraph.dto.SlotConflictsDTO;
+import com.mindgraph.entity.TaskStatus;
+import com.mindgraph.repository.EventRepository;
+import com.mindgraph.repository.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Answers "what overlaps this time range" from memory. Each user's single events and scheduled
+// tasks are loaded into an IntervalTree on first use, kept current from ScheduleChangedEvents published
+// by TaskService/EventService, and dropped after a period without queries.
+// Changes made through another backend node are not seen until the user's tree is reloaded,
+// which the idle timeout bounds. Recurring series are expanded over the queried range by
+// RecurrenceExpander, which keeps its own per-user cache.
+@Service
+public class ScheduleConflictService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduleConflictService.class);
+
+    private static final List<TaskStatus> INACTIVE_STATUSES = List.of(TaskStatus.COMPLETED, TaskStatus.CANCELLED);
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private RecurrenceExpander recurrenceExpander;
+
+    private final Map<Long, UserSchedule> schedules = new ConcurrentHashMap<>();
+    private final long idleTimeoutNanos;
+
+    private final Counter loads;
+    private final Counter evictions;
+
+    public ScheduleConflictService(@Value("${schedule.conflicts.idle-timeout:30m}") Duration idleTimeout,
+                                   MeterRegistry meterRegistry) {
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+
+        this.loads = Counter.builder("schedule.conflicts.loads").register(meterRegistry);
+        this.evictions = Counter.builder("schedule.conflicts.evictions").register(meterRegistry);
+        Gauge.builder("schedule.conflicts.users", schedules, Map::size).register(meterRegistry);
+    }
+
+    // Items overlapping [start, end), in start order. The item identified by excludeType and
+    // excludeId (the one being moved) is left out; both may be null.
+    public List<ScheduleConflictDTO> findConflicts(Long userId, LocalDateTime start, LocalDateTime end,
+                                                   String excludeType, Long excludeId) {
+        if (start == null || end == null || !end.isAfter(start)) {
+            throw new IllegalArgumentException("A start time and a later end time are required");
+        }
+        UserSchedule schedule = schedule(userId);
+        List<ScheduleConflictDTO> conflicts = new ArrayList<>();
+        synchronized (schedule) {
+            schedule.tree.findOverlapping(seconds(start), seconds(end), conflicts);
+        }
+        if (recurrenceExpander.hasSeries(userId)) {
+            conflicts = withOccurrences(conflicts, recurrenceExpander.occurrences(userId, start, end));
+        }
+        if (excludeType != null && excludeId != null) {
+            conflicts.removeIf(item -> excludeType.equals(item.getType()) && excludeId.equals(item.getId()));
+        }
+        return conflicts;
+    }
+
+    // Checks a whole proposed schedule: every slot against the user's existing items (one tree
+    // query each), and the slots against each other with a sweep over them in start order
+    public List<SlotConflictsDTO> checkSlots(Long userId, List<ProposedSlotDTO> slots) {
+        List<SlotConflictsDTO> results = new ArrayList<>(slots.size());
+        for (ProposedSlotDTO slot : slots) {
+            List<ScheduleConflictDTO> conflicts = findConflicts(userId, slot.getStartTime(), slot.getEndTime(),
+                    ScheduleChangedEvent.TASK, slot.getTaskId());
+            results.add(new SlotConflictsDTO(slot, conflicts));
+        }
+
+        List<Integer> order = new ArrayList<>(slots.size());
+        for (int i = 0; i < slots.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.comparing(i -> slots.get(i).getStartTime()));
+
+        // Slots still running at the current sweep position
+        List<Integer> active = new ArrayList<>();
+        for (int index : order) {
+            ProposedSlotDTO slot = slots.get(index);
+            active.removeIf(other -> !slots.get(other).getEndTime().isAfter(slot.getStartTime()));
+            for (int other : active) {
+                results.get(index).getOverlappingSlots().add(other);
+                results.get(other).getOverlappingSlots().add(index);
+            }
+            active.add(index);
+        }
+        return results;
+    }
+
+    // Loads the user's tree ahead of the first query, e.g. while a chat is still collecting details
+    public void prefetch(Long userId) {
+        schedule(userId);
+        recurrenceExpander.hasSeries(userId);
+    }
+
+    // Runs after the writing transaction commits, or right away for writes outside one; ahead of
+    // listeners that rebuild from this index
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onScheduleChanged(ScheduleChangedEvent event) {
+        UserSchedule schedule = schedules.get(event.getUserId());
+        if (schedule == null) {
+            // Not loaded: the next load reads the committed state
+            return;
+        }
+        synchronized (schedule) {
+            long key = key(event.getType(), event.getItemId());
+            schedule.remove(key);
+            if (event.getItem() != null) {
+                schedule.put(key, event.getItem());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${schedule.conflicts.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        Iterator<UserSchedule> it = schedules.values().iterator();
+        while (it.hasNext()) {
+            if (now - it.next().lastAccess > idleTimeoutNanos) {
+                it.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    private UserSchedule schedule(Long userId) {
+        UserSchedule schedule = schedules.computeIfAbsent(userId, id -> new UserSchedule());
+        schedule.lastAccess = System.nanoTime();
+        synchronized (schedule) {
+            if (!schedule.loaded) {
+                // Changes published while this runs wait on the lock and are applied on top
+                for (ScheduleConflictDTO item : eventRepository.findScheduleItems(userId)) {
+                    schedule.put(key(item.getType(), item.getId()), item);
+                }
+                for (ScheduleConflictDTO item : taskRepository.findScheduleItems(userId, INACTIVE_STATUSES)) {
+                    schedule.put(key(item.getType(), item.getId()), item);
+                }
+                schedule.loaded = true;
+                loads.increment();
+                logger.debug("Loaded {} schedule item(s) for user {}", schedule.tree.size(), userId);
+            }
+        }
+        return schedule;
+    }
+
+    // Merges the tree's items and the series occurrences, both already in start order
+    private static List<ScheduleConflictDTO> withOccurrences(List<ScheduleConflictDTO> items,
+                                                             Iterator<EventDTO> occurrences) {
+        if (!occurrences.hasNext()) {
+            return items;
+        }
+        List<ScheduleConflictDTO> merged = new ArrayList<>(items.size() + 8);
+        int i = 0;
+        while (occurrences.hasNext()) {
+            EventDTO occurrence = occurrences.next();
+            while (i < items.size() && !items.get(i).getStartTime().isAfter(occurrence.getStartTime())) {
+                merged.add(items.get(i++));
+            }
+            merged.add(new ScheduleConflictDTO(ScheduleChangedEvent.EVENT, occurrence.getId(),
+                    occurrence.getTitle(), occurrence.getStartTime(), occurrence.getEndTime()));
+        }
+        merged.addAll(items.subList(i, items.size()));
+        return merged;
+    }
+
+    // Events and tasks have separate id sequences
+    private static long key(String type, Long id) {
+        return id * 2 + (ScheduleChangedEvent.TASK.equals(type) ? 1 : 0);
+    }
+
+    private static long seconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static final class UserSchedule {
+        private final IntervalTree<ScheduleConflictDTO> tree = new IntervalTree<>();
+        private final Map<Long, ScheduleConflictDTO> byKey = new HashMap<>();
+        private boolean loaded;
+        private volatile long lastAccess;
+
+        void put(long key, ScheduleConflictDTO item) {
+            remove(key);
+            tree.insert(seconds(item.getStartTime()), seconds(item.getEndTime()), key, item);
+            byKey.put(key, item);
+        }
+
+        void remove(long key) {
+            ScheduleConflictDTO item = byKey.remove(key);
+            if (item != null) {
+                tree.remove(seconds(item.getStartTime()), key);
+            }
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.mindgraph.service;
+
+import com.mindgraph.dto.GeneratedScheduleDTO;
+import com.mindgraph.dto.ProposedSlotDTO;
+import com.mindgraph.dto.ScheduleConflictDTO;
+import com.mindgraph.dto.ScheduleGenerationRequestDTO;
+import com.mindgraph.entity.DifficultyLevel;
+import com.mindgraph.entity.Task;
+import com.mindgraph.entity.TaskPriority;
+import com.mindgraph.entity.TaskStatus;
+import com.mindgraph.entity.User;
+import com.mindgraph.entity.UserPreference;
+import com.mindgraph.repository.TaskRepository;
+import com.mindgraph.repository.UserPreferenceRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+// Plans the user's open, unscheduled tasks into free work time over the next few days (see
+// ScheduleSearch for the model and objective). Existing events and scheduled tasks come from
+// ScheduleConflictService's in-memory index. With enableSmartScheduling off, only the greedy
+// earliest-deadline-first pass runs.
+@Service
+public class ScheduleGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScheduleGenerator.class);
+
+    private static final List<TaskStatus> OPEN_STATUSES =
+            List.of(TaskStatus.PENDING, TaskStatus.IN_PROGRESS, TaskStatus.OVERDUE);
+    private static final int CELLS_PER_DAY = EnergyProfile.MINUTES_PER_DAY / ScheduleSearch.QUANTUM_MINUTES;
+    private static final int DEFAULT_TASK_MINUTES = 60;
+    private static final int DEFAULT_DAYS = 7;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserPreferenceRepository userPreferenceRepository;
+
+    @Autowired
+    private ScheduleConflictService conflictService;
+
+    @Autowired
+    private TaskService taskService;
+
+    private final ForkJoinPool pool;
+    private final int workers;
+    private final int maxDays;
+    private final int maxTasks;
+    private final Duration timeBudget;
+    private final LocalTime defaultWorkStart;
+    private final LocalTime defaultWorkEnd;
+
+    public ScheduleGenerator(@Value("${schedule.generate.parallelism:0}") int parallelism,
+                             @Value("${schedule.generate.max-days:31}") int maxDays,
+                             @Value("${schedule.generate.max-tasks:500}") int maxTasks,
+                             @Value("${schedule.generate.time-budget:300ms}") Duration timeBudget,
+                             @Value("${schedule.available.default-work-start:09:00}") String defaultWorkStart,
+                             @Value("${schedule.available.default-work-end:17:00}") String defaultWorkEnd) {
+        // 0 means one worker per core
+        this.workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(workers);
+        this.maxDays = maxDays;
+        this.maxTasks = maxTasks;
+        this.timeBudget = timeBudget;
+        this.defaultWorkStart = LocalTime.parse(defaultWorkStart);
+        this.defaultWorkEnd = LocalTime.parse(defaultWorkEnd);
+    }
+
+    public GeneratedScheduleDTO generate(User user, ScheduleGenerationRequestDTO request, LocalDateTime now) {
+        long startNanos = System.nanoTime();
+        UserPreference preference = effectivePreference(
+                userPreferenceRepository.findByUserId(user.getId()).orElseGet(UserPreference::new), request);
+
+        LocalDate startDate = request.getStartDate() != null ? request.getStartDate() : now.toLocalDate();
+        int days = request.getDays() != null ? request.getDays() : DEFAULT_DAYS;
+        if (days < 1 || days > maxDays) {
+            throw new IllegalArgumentException("days must be between 1 and " + maxDays);
+        }
+        LocalDateTime horizonStart = startDate.atStartOfDay();
+        LocalDateTime horizonEnd = horizonStart.plusDays(days);
+        if (!horizonEnd.isAfter(now)) {
+            throw new IllegalArgumentException("The schedule must end in the future");
+        }
+
+        // Most pressing tasks first when there are more than one run can plan
+        List<Task> tasks = new ArrayList<>(taskRepository.findUnscheduledTasks(user.getId(), OPEN_STATUSES));
+        tasks.sort(Comparator.comparing(Task::getDeadline, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(task -> weight(task.getPriority()), Comparator.reverseOrder()));
+        List<Task> planned = tasks.subList(0, Math.min(tasks.size(), maxTasks));
+
+        ScheduleSearch search = buildSearch(user, preference, planned, horizonStart, horizonEnd, now, days);
+        ScheduleSearch.Solution solution = search.greedy();
+        boolean smart = !Boolean.FALSE.equals(preference.getEnableSmartScheduling());
+        if (smart && !planned.isEmpty()) {
+            Duration budget = request.getTimeBudgetMs() != null
+                    ? Duration.ofMillis(Math.max(0, Math.min(request.getTimeBudgetMs(), timeBudget.toMillis())))
+                    : timeBudget;
+            solution = search.improve(solution, pool, workers, startNanos + budget.toNanos());
+        }
+
+        GeneratedScheduleDTO result = new GeneratedScheduleDTO();
+        for (int i = 0; i < planned.size(); i++) {
+            Task task = planned.get(i);
+            int start = solution.start[i];
+            if (start < 0) {
+                result.getUnscheduledTaskIds().add(task.getId());
+                continue;
+            }
+            LocalDateTime startTime = horizonStart.plusMinutes((long) start * ScheduleSearch.QUANTUM_MINUTES);
+            LocalDateTime endTime = startTime.plusMinutes(durationMinutes(task));
+            result.getSlots().add(new ProposedSlotDTO(task.getId(), startTime, endTime));
+            if (task.getDeadline() != null && endTime.isAfter(task.getDeadline())) {
+                result.getLateTaskIds().add(task.getId());
+            }
+        }
+        for (Task task : tasks.subList(planned.size(), tasks.size())) {
+            result.getUnscheduledTaskIds().add(task.getId());
+        }
+        result.getSlots().sort(Comparator.comparing(ProposedSlotDTO::getStartTime));
+        result.setScore(solution.score);
+        result.setStrategy(smart ? "LOCAL_SEARCH" : "GREEDY");
+
+        if (Boolean.TRUE.equals(request.getApply()) && !result.getSlots().isEmpty()) {
+            taskService.applySchedule(user, result.getSlots());
+            result.setApplied(true);
+        }
+        result.setElapsedMillis(Duration.ofNanos(System.nanoTime() - startNanos).toMillis());
+        logger.info("Generated schedule for user {}: {}/{} task(s) placed, score {}, {} ms", user.getId(),
+                result.getSlots().size(), tasks.size(), Math.round(solution.score), result.getElapsedMillis());
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private ScheduleSearch buildSearch(User user, UserPreference preference, List<Task> tasks,
+                                       LocalDateTime horizonStart, LocalDateTime horizonEnd, LocalDateTime now,
+                                       int days) {
+        int workStart = minuteOfDay(preference.getPreferredWorkStartTime() != null
+                ? preference.getPreferredWorkStartTime() : defaultWorkStart);
+        int workEnd = minuteOfDay(preference.getPreferredWorkEndTime() != null
+                ? preference.getPreferredWorkEndTime() : defaultWorkEnd);
+        if (workEnd <= workStart) {
+            workEnd = EnergyProfile.MINUTES_PER_DAY;
+        }
+        EnergyProfile energy = new EnergyProfile(preference);
+
+        int cells = days * CELLS_PER_DAY;
+        int[] grid = new int[cells];
+        int[] energyLevels = new int[cells];
+        int firstOpenCell = cellCeil(horizonStart, now);
+        for (int cell = 0; cell < cells; cell++) {
+            int minute = (cell % CELLS_PER_DAY) * ScheduleSearch.QUANTUM_MINUTES;
+            boolean open = minute >= workStart && minute + ScheduleSearch.QUANTUM_MINUTES <= workEnd
+                    && cell >= firstOpenCell;
+            grid[cell] = open ? ScheduleSearch.FREE : ScheduleSearch.OFF;
+            energyLevels[cell] = energy.levelAt(minute);
+        }
+        for (ScheduleConflictDTO item : conflictService.findConflicts(user.getId(), horizonStart, horizonEnd, null, null)) {
+            int from = Math.max(0, cellFloor(horizonStart, item.getStartTime()));
+            int to = Math.min(cells, cellCeil(horizonStart, item.getEndTime()));
+            for (int cell = from; cell < to; cell++) {
+                grid[cell] = ScheduleSearch.BUSY;
+            }
+        }
+
+        int[] length = new int[tasks.size()];
+        int[] weight = new int[tasks.size()];
+        int[] difficulty = new int[tasks.size()];
+        int[] deadline = new int[tasks.size()];
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            length[i] = (durationMinutes(task) + ScheduleSearch.QUANTUM_MINUTES - 1) / ScheduleSearch.QUANTUM_MINUTES;
+            weight[i] = weight(task.getPriority());
+            difficulty[i] = difficulty(task.getDifficulty());
+            // A deadline already behind the horizon start counts from the start, so lateness stays
+            // bounded by the horizon and overdue tasks are simply pulled as early as possible
+            deadline[i] = task.getDeadline() != null
+                    ? Math.max(0, cellFloor(horizonStart, task.getDeadline()))
+                    : ScheduleSearch.NO_DEADLINE;
+        }
+
+        return new ScheduleSearch(CELLS_PER_DAY, grid, energyLevels,
+                cellsFor(preference.getBufferTimeMinutes(), 0),
+                cellsFor(preference.getPreferredBreakDurationMinutes(), 0),
+                cellsFor(preference.getMaxContinuousWorkMinutes(), EnergyProfile.MINUTES_PER_DAY),
+                length, weight, difficulty, deadline);
+    }
+
+    // A detached copy of the stored preferences with the request's overrides applied; the stored
+    // entity may still be managed, and the overrides must not be flushed with it
+    private static UserPreference effectivePreference(UserPreference stored, ScheduleGenerationRequestDTO request) {
+        UserPreference preference = new UserPreference();
+        preference.setPreferredWorkStartTime(stored.getPreferredWorkStartTime());
+        preference.setPreferredWorkEndTime(stored.getPreferredWorkEndTime());
+        preference.setMorningEnergyLevel(stored.getMorningEnergyLevel());
+        preference.setAfternoonEnergyLevel(stored.getAfternoonEnergyLevel());
+        preference.setEveningEnergyLevel(stored.getEveningEnergyLevel());
+        preference.setBufferTimeMinutes(stored.getBufferTimeMinutes());
+        preference.setPreferredBreakDurationMinutes(stored.getPreferredBreakDurationMinutes());
+        preference.setMaxContinuousWorkMinutes(stored.getMaxContinuousWorkMinutes());
+        preference.setEnableSmartScheduling(stored.getEnableSmartScheduling());
+
+        if (request.getPreferredWorkStartTime() != null) {
+            preference.setPreferredWorkStartTime(request.getPreferredWorkStartTime());
+        }
+        if (request.getPreferredWorkEndTime() != null) {
+            preference.setPreferredWorkEndTime(request.getPreferredWorkEndTime());
+        }
+        if (request.getBufferTimeMinutes() != null) {
+            preference.setBufferTimeMinutes(request.getBufferTimeMinutes());
+        }
+        if (request.getPreferredBreakDurationMinutes() != null) {
+            preference.setPreferredBreakDurationMinutes(request.getPreferredBreakDurationMinutes());
+        }
+        if (request.getMaxContinuousWorkMinutes() != null) {
+            preference.setMaxContinuousWorkMinutes(request.getMaxContinuousWorkMinutes());
+        }
+        if (request.getEnableSmartScheduling() != null) {
+            preference.setEnableSmartScheduling(request.getEnableSmartScheduling());
+        }
+        return preference;
+    }
+
+    private static int durationMinutes(Task task) {
+        Integer estimate = task.getEstimatedDurationMinutes();
+        return estimate != null && estimate > 0 ? estimate : DEFAULT_TASK_MINUTES;
+    }
+
+    private static int weight(TaskPriority priority) {
+        if (priority == null) {
+            return 2;
+        }
+        switch (priority) {
+            case LOW: return 1;
+            case HIGH: return 4;
+            case URGENT: return 8;
+            default: return 2;
+        }
+    }
+
+    private static int difficulty(DifficultyLevel level) {
+        return level != null ? level.ordinal() + 1 : DifficultyLevel.MEDIUM.ordinal() + 1;
+    }
+
+    private static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private static int cellsFor(Integer minutes, int fallback) {
+        int value = minutes != null ? minutes : fallback;
+        return (value + ScheduleSearch.QUANTUM_MINUTES - 1) / ScheduleSearch.QUANTUM_MINUTES;
+    }
+
+    private static int cellFloor(LocalDateTime horizonStart, LocalDateTime time) {
+        long minutes = Duration.between(horizonStart, time).toMinutes();
+        return (int) Math.max(Integer.MIN_VALUE / 2, Math.min(Integer.MAX_VALUE / 2,
+                Math.floorDiv(minutes, ScheduleSearch.QUANTUM_MINUTES)));
+    }
+
+    private static int cellCeil(LocalDateTime horizonStart, LocalDateTime time) {
+        long seconds = Duration.between(horizonStart, time).getSeconds();
+        long cellSeconds = ScheduleSearch.QUANTUM_MINUTES * 60L;
+        return (int) Math.max(Integer.MIN_VALUE / 2, Math.min(Integer.MAX_VALUE / 2,
+                Math.floorDiv(seconds + cellSeconds - 1, cellSeconds)));
+    }
+}
@@ -0,0 +1,357 @@
+package com.mindgraph.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// The search behind ScheduleGenerator. Time is a grid of QUANTUM_MINUTES cells over the horizon;
+// each cell is FREE, BUSY (an existing event or task), OFF (outside work hours or in the past) or
+// holds the index of the task placed there. A task occupies consecutive FREE cells within one
+// day and keeps bufferCells of non-work cells on both sides.
+//
+// The objective rewards every placed task by its weight, plus how well the energy level over its
+// cells suits its difficulty and how early it runs; it penalizes missed deadlines, and work runs
+// (cells of work separated by less than a break) longer than maxRunCells. A greedy pass gives
+// the seed, then each worker of a fork-join pool runs simulated annealing from it with its own
+// random stream until the deadline, and the best schedule found wins.
+final class ScheduleSearch {
+
+    static final int QUANTUM_MINUTES = 5;
+    static final int FREE = -1;
+    static final int BUSY = -2;
+    static final int OFF = -3;
+    static final int NO_DEADLINE = Integer.MAX_VALUE;
+
+    // Objective weights. A placed task is always worth more than its worst penalties, so the
+    // search never unschedules a task to satisfy a preference.
+    private static final double PLACED = 1000;
+    private static final double ENERGY_FIT = 10;
+    private static final double EARLY_PER_DAY = 5;
+    private static final double LATE = 400;
+    private static final double LATE_PER_HOUR = 0.5;
+    private static final double OVERRUN_PER_CELL = 50;
+
+    private static final double INITIAL_TEMPERATURE = 200;
+    private static final int CLOCK_CHECK_INTERVAL = 256;
+
+    private final int cellsPerDay;
+    private final int[] baseGrid;
+    private final double[] energyPrefix;
+    private final int[] freeCells;
+    private final int bufferCells;
+    private final int breakCells;
+    private final int maxRunCells;
+
+    private final int[] length;
+    private final int[] weight;
+    private final int[] difficulty;
+    private final int[] deadline;
+
+    // baseGrid holds FREE, BUSY and OFF only; energyLevels is the user's level per cell. Per task:
+    // its length in cells, weight, difficulty (1-5) and the cell its deadline falls in.
+    ScheduleSearch(int cellsPerDay, int[] baseGrid, int[] energyLevels, int bufferCells, int breakCells,
+                   int maxRunCells, int[] length, int[] weight, int[] difficulty, int[] deadline) {
+        this.cellsPerDay = cellsPerDay;
+        this.baseGrid = baseGrid;
+        this.bufferCells = bufferCells;
+        this.breakCells = Math.max(breakCells, bufferCells);
+        this.maxRunCells = maxRunCells;
+        this.length = length;
+        this.weight = weight;
+        this.difficulty = difficulty;
+        this.deadline = deadline;
+
+        this.energyPrefix = new double[baseGrid.length + 1];
+        int free = 0;
+        for (int cell = 0; cell < baseGrid.length; cell++) {
+            energyPrefix[cell + 1] = energyPrefix[cell] + energyLevels[cell];
+            if (baseGrid[cell] == FREE) {
+                free++;
+            }
+        }
+        this.freeCells = new int[free];
+        for (int cell = 0, i = 0; cell < baseGrid.length; cell++) {
+            if (baseGrid[cell] == FREE) {
+                freeCells[i++] = cell;
+            }
+        }
+    }
+
+    // Earliest deadline first, heavier and longer tasks first among equals; each takes the start
+    // with the best objective given the tasks placed before it
+    Solution greedy() {
+        State state = new State();
+        Integer[] order = new Integer[length.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingInt(i -> deadline[i])
+                .thenComparingInt(i -> -weight[i])
+                .thenComparingInt(i -> -length[i]));
+
+        for (int task : order) {
+            int bestStart = -1;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int start : freeCells) {
+                double value = contribution(task, start);
+                // Overrun penalties only lower the value, so most starts are settled without them
+                if (value <= bestValue || !state.canPlace(task, start)) {
+                    continue;
+                }
+                int day = start / cellsPerDay;
+                state.mark(task, start);
+                value -= OVERRUN_PER_CELL * (overrun(state.grid, day) - state.dayOverrun[day]);
+                state.unmark(task, start);
+                if (value > bestValue) {
+                    bestValue = value;
+                    bestStart = start;
+                }
+            }
+            if (bestStart >= 0) {
+                state.place(task, bestStart);
+            }
+        }
+        return state.snapshot();
+    }
+
+    // Runs `workers` annealing searches from the seed on the pool until deadlineNanos
+    Solution improve(Solution seed, ForkJoinPool pool, int workers, long deadlineNanos) {
+        List<Callable<Solution>> searches = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            long randomSeed = 0x9E3779B97F4A7C15L * (w + 1);
+            // Worker 0 only climbs; the others also accept some worse moves early on
+            double temperature = w == 0 ? 0 : INITIAL_TEMPERATURE;
+            searches.add(() -> anneal(seed, new Random(randomSeed), temperature, deadlineNanos));
+        }
+        Solution best = seed;
+        for (Future<Solution> result : pool.invokeAll(searches)) {
+            try {
+                Solution found = result.get();
+                if (found.score > best.score) {
+                    best = found;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Schedule search failed", e.getCause());
+            }
+        }
+        return best;
+    }
+
+    private Solution anneal(Solution seed, Random random, double initialTemperature, long deadlineNanos) {
+        State state = new State();
+        for (int task = 0; task < length.length; task++) {
+            if (seed.start[task] >= 0) {
+                state.place(task, seed.start[task]);
+            }
+        }
+        Solution best = state.snapshot();
+        if (freeCells.length == 0 || length.length == 0) {
+            return best;
+        }
+
+        long startNanos = System.nanoTime();
+        double span = Math.max(1, deadlineNanos - startNanos);
+        double temperature = initialTemperature;
+        for (long iteration = 0; ; iteration++) {
+            if (iteration % CLOCK_CHECK_INTERVAL == 0) {
+                long now = System.nanoTime();
+                if (now >= deadlineNanos) {
+                    break;
+                }
+                temperature = initialTemperature * (deadlineNanos - now) / span;
+            }
+
+            double before = state.score;
+            int task = random.nextInt(length.length);
+            int move = random.nextInt(10);
+            if (move < 2 && state.start[task] >= 0) {
+                // Swap start times with another placed task
+                int other = random.nextInt(length.length);
+                if (other == task || state.start[other] < 0 || !state.swap(task, other)) {
+                    continue;
+                }
+                if (!accept(state.score - before, temperature, random)) {
+                    state.swap(task, other);
+                }
+            } else {
+                // Relocate, either a short shift or anywhere; unplaced tasks get another chance
+                int from = state.start[task];
+                int to = move < 5 && from >= 0
+                        ? from + (random.nextBoolean() ? 1 : -1) * (1 + random.nextInt(12))
+                        : freeCells[random.nextInt(freeCells.length)];
+                if (to < 0 || !state.relocate(task, to)) {
+                    continue;
+                }
+                if (!accept(state.score - before, temperature, random)) {
+                    state.relocate(task, from);
+                }
+            }
+            if (state.score > best.score + 1e-9) {
+                best = state.snapshot();
+            }
+        }
+        return best;
+    }
+
+    private static boolean accept(double delta, double temperature, Random random) {
+        return delta >= 0 || (temperature > 0 && random.nextDouble() < Math.exp(delta / temperature));
+    }
+
+    private double contribution(int task, int start) {
+        int end = start + length[task];
+        double energy = (energyPrefix[end] - energyPrefix[start]) / length[task];
+        double value = weight[task] * (PLACED - EARLY_PER_DAY * (start / cellsPerDay))
+                + ENERGY_FIT * energy * difficulty[task];
+        if (end > deadline[task]) {
+            double hoursLate = (double) (end - deadline[task]) * QUANTUM_MINUTES / 60;
+            value -= weight[task] * (LATE + LATE_PER_HOUR * hoursLate);
+        }
+        return value;
+    }
+
+    // Work cells beyond maxRunCells, summed over the day's runs
+    private int overrun(int[] grid, int day) {
+        int total = 0;
+        int run = 0;
+        int gap = breakCells;
+        for (int cell = day * cellsPerDay, end = cell + cellsPerDay; cell < end; cell++) {
+            if (grid[cell] >= 0 || grid[cell] == BUSY) {
+                if (gap >= breakCells) {
+                    total += Math.max(0, run - maxRunCells);
+                    run = 0;
+                }
+                gap = 0;
+                run++;
+            } else {
+                gap++;
+            }
+        }
+        return total + Math.max(0, run - maxRunCells);
+    }
+
+    static final class Solution {
+        final int[] start;
+        final double score;
+
+        Solution(int[] start, double score) {
+            this.start = start;
+            this.score = score;
+        }
+    }
+
+    // One worker's mutable schedule; score is kept current by every change
+    private final class State {
+        private final int[] grid = baseGrid.clone();
+        private final int[] start = new int[length.length];
+        private final int[] dayOverrun = new int[baseGrid.length / cellsPerDay];
+        private double score;
+
+        State() {
+            Arrays.fill(start, -1);
+            for (int day = 0; day < dayOverrun.length; day++) {
+                dayOverrun[day] = overrun(grid, day);
+                score -= OVERRUN_PER_CELL * dayOverrun[day];
+            }
+        }
+
+        Solution snapshot() {
+            return new Solution(start.clone(), score);
+        }
+
+        boolean canPlace(int task, int at) {
+            int end = at + length[task];
+            if (at < 0 || end > grid.length || at / cellsPerDay != (end - 1) / cellsPerDay) {
+                return false;
+            }
+            for (int cell = at; cell < end; cell++) {
+                if (grid[cell] != FREE) {
+                    return false;
+                }
+            }
+            for (int cell = Math.max(0, at - bufferCells), last = Math.min(grid.length, end + bufferCells);
+                 cell < last; cell++) {
+                if (grid[cell] >= 0 || grid[cell] == BUSY) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void place(int task, int at) {
+            mark(task, at);
+            start[task] = at;
+            score += contribution(task, at);
+            refreshDay(at / cellsPerDay);
+        }
+
+        void remove(int task) {
+            int at = start[task];
+            unmark(task, at);
+            start[task] = -1;
+            score -= contribution(task, at);
+            refreshDay(at / cellsPerDay);
+        }
+
+        // Moves the task to `to` (-1 unplaces it); false, with nothing changed, when it does not fit
+        boolean relocate(int task, int to) {
+            int from = start[task];
+            if (from >= 0) {
+                remove(task);
+            }
+            if (to < 0) {
+                return true;
+            }
+            if (canPlace(task, to)) {
+                place(task, to);
+                return true;
+            }
+            if (from >= 0) {
+                place(task, from);
+            }
+            return false;
+        }
+
+        // Exchanges the start times of two placed tasks; false, with nothing changed, when either
+        // does not fit in the other's place
+        boolean swap(int a, int b) {
+            int startA = start[a];
+            int startB = start[b];
+            remove(a);
+            remove(b);
+            if (canPlace(a, startB)) {
+                place(a, startB);
+                if (canPlace(b, startA)) {
+                    place(b, startA);
+                    return true;
+                }
+                remove(a);
+            }
+            place(a, startA);
+            place(b, startB);
+            return false;
+        }
+
+        private void mark(int task, int at) {
+            Arrays.fill(grid, at, at + length[task], task);
+        }
+
+        private void unmark(int task, int at) {
+            Arrays.fill(grid, at, at + length[task], FREE);
+        }
+
+        private void refreshDay(int day) {
+            int updated = overrun(grid, day);
+            score -= OVERRUN_PER_CELL * (updated - dayOverrun[day]);
+            dayOverrun[day] = updated;
+        }
+    }
+}
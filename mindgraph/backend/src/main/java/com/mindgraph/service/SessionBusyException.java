@@ -0,0 +1,9 @@
+package com.mindgraph.service;
+
+// A session already has the maximum number of chat turns waiting behind the one in progress
+public class SessionBusyException extends RuntimeException {
+
+    public SessionBusyException(String sessionId) {
+        super("Too many pending messages for session " + sessionId);
+    }
+}
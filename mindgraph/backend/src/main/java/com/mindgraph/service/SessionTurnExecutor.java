@@ -0,0 +1,151 @@
+package com.mindgraph.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Runs chat turns one at a time per session.
+// Each active session has a small mailbox: a turn starts immediately when the session is idle,
+// otherwise it waits until the previous turn's pipeline has terminated. Sessions never wait on
+// each other, and no thread is blocked while a turn is queued. A mailbox is dropped as soon as
+// it drains, so idle sessions cost nothing here.
+@Component
+public class SessionTurnExecutor {
+
+    private final int maxQueuedTurns;
+
+    private final Map<String, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final AtomicInteger queuedTurns = new AtomicInteger();
+
+    private final DistributionSummary queueDepth;
+    private final Counter rejected;
+
+    public SessionTurnExecutor(@Value("${chatbot.session.max-queued-turns:4}") int maxQueuedTurns,
+                               MeterRegistry meterRegistry) {
+        this.maxQueuedTurns = maxQueuedTurns;
+
+        this.queueDepth = DistributionSummary.builder("chatbot.session.queue.depth")
+                .description("Turns already pending on a session when a new one arrives")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("chatbot.session.rejections").register(meterRegistry);
+        Gauge.builder("chatbot.session.queued", queuedTurns, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("chatbot.session.active", mailboxes, Map::size).register(meterRegistry);
+    }
+
+    public <T> Mono<T> runTurn(String sessionId, Supplier<Mono<T>> turn) {
+        // singleOrEmpty waits for completion, so the next turn only starts after this one finished
+        return streamTurn(sessionId, () -> turn.get().flux()).singleOrEmpty();
+    }
+
+    // Fails with SessionBusyException when the session already has maxQueuedTurns waiting
+    public <T> Flux<T> streamTurn(String sessionId, Supplier<Flux<T>> turn) {
+        return Flux.create(sink -> {
+            Turn<T> pending = new Turn<>(turn, sink);
+            Mailbox mailbox;
+            boolean startNow;
+            while (true) {
+                mailbox = mailboxes.computeIfAbsent(sessionId, Mailbox::new);
+                synchronized (mailbox) {
+                    // Lost a race with the mailbox draining; fetch the replacement
+                    if (mailbox.retired) {
+                        continue;
+                    }
+                    if (mailbox.queue.size() >= maxQueuedTurns) {
+                        rejected.increment();
+                        sink.error(new SessionBusyException(sessionId));
+                        return;
+                    }
+                    queueDepth.record(mailbox.queue.size() + (mailbox.running ? 1 : 0));
+                    startNow = !mailbox.running;
+                    if (startNow) {
+                        mailbox.running = true;
+                    } else {
+                        mailbox.queue.add(pending);
+                        queuedTurns.incrementAndGet();
+                    }
+                }
+                break;
+            }
+
+            Mailbox owner = mailbox;
+            sink.onCancel(() -> cancel(owner, pending));
+            if (startNow) {
+                run(owner, pending);
+            }
+        });
+    }
+
+    private <T> void run(Mailbox mailbox, Turn<T> turn) {
+        AtomicBoolean finished = new AtomicBoolean();
+        turn.subscription.update(Flux.defer(turn.work)
+                .doFinally(signal -> {
+                    if (finished.compareAndSet(false, true)) {
+                        next(mailbox);
+                    }
+                })
+                .subscribe(turn.sink::next, turn.sink::error, turn.sink::complete));
+    }
+
+    private void next(Mailbox mailbox) {
+        Turn<?> nextTurn;
+        synchronized (mailbox) {
+            nextTurn = mailbox.queue.poll();
+            if (nextTurn == null) {
+                mailbox.running = false;
+                mailbox.retired = true;
+                mailboxes.remove(mailbox.sessionId, mailbox);
+                return;
+            }
+            queuedTurns.decrementAndGet();
+        }
+        run(mailbox, nextTurn);
+    }
+
+    private void cancel(Mailbox mailbox, Turn<?> turn) {
+        synchronized (mailbox) {
+            if (mailbox.queue.remove(turn)) {
+                queuedTurns.decrementAndGet();
+                return;
+            }
+        }
+        // Already running: disposing it moves the mailbox on to the next turn
+        turn.subscription.dispose();
+    }
+
+    private static final class Mailbox {
+        private final String sessionId;
+        private final ArrayDeque<Turn<?>> queue = new ArrayDeque<>();
+        private boolean running;
+        private boolean retired;
+
+        Mailbox(String sessionId) {
+            this.sessionId = sessionId;
+        }
+    }
+
+    private static final class Turn<T> {
+        private final Supplier<Flux<T>> work;
+        private final FluxSink<T> sink;
+        private final Disposable.Swap subscription = Disposables.swap();
+
+        Turn(Supplier<Flux<T>> work, FluxSink<T> sink) {
+            this.work = work;
+            this.sink = sink;
+        }
+    }
+}
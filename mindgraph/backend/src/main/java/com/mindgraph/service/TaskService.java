@@ -1,16 +1,31 @@
 package com.mindgraph.service;
 
+import com.mindgraph.dto.CursorPageDTO;
+import com.mindgraph.dto.ProposedSlotDTO;
+import com.mindgraph.dto.TaskDTO;
+import com.mindgraph.dto.TaskSummaryDTO;
 import com.mindgraph.entity.Task;
+import com.mindgraph.entity.TaskPriority;
 import com.mindgraph.entity.TaskStatus;
+import com.mindgraph.entity.TaskType;
 import com.mindgraph.entity.User;
 import com.mindgraph.repository.TaskRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -20,6 +35,10 @@ public class TaskService {
     
     @Autowired
     private TaskRepository taskRepository;
+    
+    // Keeps ScheduleConflictService's in-memory schedules current
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     public Task createTask(Task task) {
         try {
@@ -51,6 +70,7 @@ public class TaskService {
             
             logger.info("Saving task to database: {}", task.getTitle());
             Task savedTask = taskRepository.save(task);
+            eventPublisher.publishEvent(ScheduleChangedEvent.of(savedTask));
             
             System.out.println("Task saved successfully with ID: " + savedTask.getId());
             System.out.println("===========================");
@@ -68,7 +88,9 @@ public class TaskService {
 
     public Task updateTask(Task task) {
         task.setUpdatedAt(LocalDateTime.now());
-        return taskRepository.save(task);
+        Task savedTask = taskRepository.save(task);
+        eventPublisher.publishEvent(ScheduleChangedEvent.of(savedTask));
+        return savedTask;
     }
 
     public Optional<Task> getTaskById(Long id) {
@@ -84,7 +106,7 @@ public class TaskService {
     }
 
     public void deleteTask(Long id) {
-        taskRepository.deleteById(id);
+        taskRepository.findById(id).ifPresent(this::delete);
     }
 
     public Task markTaskComplete(Long id) {
@@ -94,7 +116,9 @@ public class TaskService {
             task.setStatus(TaskStatus.COMPLETED);
             task.setCompletedAt(LocalDateTime.now());
             task.setUpdatedAt(LocalDateTime.now());
-            return taskRepository.save(task);
+            Task savedTask = taskRepository.save(task);
+            eventPublisher.publishEvent(ScheduleChangedEvent.of(savedTask));
+            return savedTask;
         }
         throw new RuntimeException("Task not found with id: " + id);
     }
@@ -106,4 +130,185 @@ public class TaskService {
     public Long countTasksByUserAndStatus(User user, TaskStatus status) {
         return taskRepository.countTasksByUserAndStatus(user, status);
     }
-}
\ No newline at end of file
+
+    // Keyset page of the user's tasks, newest first. The cursor is opaque to clients; it encodes
+    // the (createdAt, id) of the last row, so each page is an index range scan however deep it is.
+    public CursorPageDTO<TaskSummaryDTO> listTaskSummaries(User user, String cursor, int limit) {
+        // One extra row tells whether another page exists without a COUNT query
+        PageRequest page = PageRequest.of(0, limit + 1);
+        List<TaskSummaryDTO> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = taskRepository.findSummaries(user.getId(), page);
+        } else {
+            TaskCursor after = decodeCursor(cursor);
+            rows = taskRepository.findSummariesAfter(user.getId(), after.createdAt, after.id, page);
+        }
+        
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = new ArrayList<>(rows.subList(0, limit));
+            nextCursor = encodeCursor(rows.get(limit - 1));
+        }
+        attachTags(rows);
+        return new CursorPageDTO<>(rows, nextCursor);
+    }
+
+    // Ranked full-text matches, title hits first; every word of the keyword is matched as a prefix
+    public List<TaskSummaryDTO> searchTaskSummaries(User user, String keyword, int page, int limit) {
+        List<TaskSummaryDTO> rows = taskRepository.searchSummaries(user.getId(), keyword, PageRequest.of(page, limit));
+        attachTags(rows);
+        return rows;
+    }
+
+    // Lazy collections are read inside the transaction
+    @Transactional(readOnly = true)
+    public Optional<TaskDTO> getTaskForUser(Long id, User user) {
+        return taskRepository.findByIdAndUserId(id, user.getId()).map(this::toDTO);
+    }
+
+    @Transactional
+    public TaskDTO createTaskForUser(TaskDTO request, User user) {
+        Task task = new Task();
+        task.setUser(user);
+        applyRequest(request, task, user);
+        return toDTO(createTask(task));
+    }
+
+    @Transactional
+    public Optional<TaskDTO> updateTaskForUser(Long id, TaskDTO request, User user) {
+        return taskRepository.findByIdAndUserId(id, user.getId()).map(task -> {
+            applyRequest(request, task, user);
+            return toDTO(updateTask(task));
+        });
+    }
+
+    @Transactional
+    public Optional<TaskDTO> markTaskCompleteForUser(Long id, User user) {
+        return taskRepository.findByIdAndUserId(id, user.getId()).map(task -> toDTO(markTaskComplete(task.getId())));
+    }
+
+    @Transactional
+    public boolean deleteTaskForUser(Long id, User user) {
+        Optional<Task> task = taskRepository.findByIdAndUserId(id, user.getId());
+        task.ifPresent(this::delete);
+        return task.isPresent();
+    }
+
+    // Writes a generated schedule to the user's tasks; slots for other users' tasks are ignored
+    @Transactional
+    public int applySchedule(User user, List<ProposedSlotDTO> slots) {
+        Map<Long, ProposedSlotDTO> byTaskId = new HashMap<>();
+        for (ProposedSlotDTO slot : slots) {
+            byTaskId.put(slot.getTaskId(), slot);
+        }
+        int applied = 0;
+        for (Task task : taskRepository.findAllById(byTaskId.keySet())) {
+            if (!task.getUser().getId().equals(user.getId())) {
+                continue;
+            }
+            ProposedSlotDTO slot = byTaskId.get(task.getId());
+            task.setScheduledStartTime(slot.getStartTime());
+            task.setScheduledEndTime(slot.getEndTime());
+            updateTask(task);
+            applied++;
+        }
+        logger.info("Applied {} generated slot(s) for user {}", applied, user.getId());
+        return applied;
+    }
+
+    private void delete(Task task) {
+        taskRepository.delete(task);
+        eventPublisher.publishEvent(ScheduleChangedEvent.removed(task.getUser().getId(),
+                ScheduleChangedEvent.TASK, task.getId()));
+    }
+
+    // Fills the tags of a page with a single IN query instead of one lazy load per row
+    private void attachTags(List<TaskSummaryDTO> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Map<Long, TaskSummaryDTO> byId = new HashMap<>();
+        for (TaskSummaryDTO row : rows) {
+            byId.put(row.getId(), row);
+        }
+        for (Object[] pair : taskRepository.findTagsByTaskIds(new ArrayList<>(byId.keySet()))) {
+            byId.get((Long) pair[0]).getTags().add((String) pair[1]);
+        }
+    }
+
+    private void applyRequest(TaskDTO request, Task task, User user) {
+        task.setTitle(request.getTitle());
+        task.setDescription(request.getDescription());
+        task.setNotes(request.getNotes());
+        task.setType(request.getType() != null ? request.getType() : TaskType.OTHER);
+        if (request.getStatus() != null) {
+            task.setStatus(request.getStatus());
+        }
+        task.setPriority(request.getPriority() != null ? request.getPriority() : TaskPriority.MEDIUM);
+        if (request.getDifficulty() != null) {
+            task.setDifficulty(request.getDifficulty());
+        }
+        task.setEstimatedDurationMinutes(request.getEstimatedDurationMinutes());
+        task.setActualDurationMinutes(request.getActualDurationMinutes());
+        task.setDeadline(request.getDeadline());
+        task.setScheduledStartTime(request.getScheduledStartTime());
+        task.setScheduledEndTime(request.getScheduledEndTime());
+        // Only the user's own tasks can be parents
+        task.setParentTask(request.getParentTaskId() != null
+                ? taskRepository.findByIdAndUserId(request.getParentTaskId(), user.getId())
+                        .orElseThrow(() -> new IllegalArgumentException("Parent task not found: " + request.getParentTaskId()))
+                : null);
+        task.setTags(request.getTags() != null ? new ArrayList<>(request.getTags()) : new ArrayList<>());
+        task.setResources(request.getResources() != null ? new ArrayList<>(request.getResources()) : new ArrayList<>());
+    }
+
+    private TaskDTO toDTO(Task task) {
+        TaskDTO dto = new TaskDTO();
+        dto.setId(task.getId());
+        dto.setTitle(task.getTitle());
+        dto.setDescription(task.getDescription());
+        dto.setNotes(task.getNotes());
+        dto.setType(task.getType());
+        dto.setStatus(task.getStatus());
+        dto.setPriority(task.getPriority());
+        dto.setDifficulty(task.getDifficulty());
+        dto.setEstimatedDurationMinutes(task.getEstimatedDurationMinutes());
+        dto.setActualDurationMinutes(task.getActualDurationMinutes());
+        dto.setDeadline(task.getDeadline());
+        dto.setScheduledStartTime(task.getScheduledStartTime());
+        dto.setScheduledEndTime(task.getScheduledEndTime());
+        dto.setCompletedAt(task.getCompletedAt());
+        dto.setCreatedAt(task.getCreatedAt());
+        dto.setUpdatedAt(task.getUpdatedAt());
+        dto.setParentTaskId(task.getParentTask() != null ? task.getParentTask().getId() : null);
+        dto.setTags(new ArrayList<>(task.getTags()));
+        dto.setResources(new ArrayList<>(task.getResources()));
+        return dto;
+    }
+
+    private static String encodeCursor(TaskSummaryDTO last) {
+        String raw = last.getCreatedAt() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static TaskCursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new TaskCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    private static final class TaskCursor {
+        private final LocalDateTime createdAt;
+        private final Long id;
+
+        TaskCursor(LocalDateTime createdAt, Long id) {
+            this.createdAt = createdAt;
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.mindgraph.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The writer thread is never started, so the queue stays full once the first turn is in it
+class ChatHistoryWriterTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE chatbot_conversations (id BIGSERIAL PRIMARY KEY, " +
+                "user_id BIGINT NOT NULL, message TEXT, response TEXT, message_type VARCHAR(50), " +
+                "created_at TIMESTAMP)");
+    }
+
+    @Test
+    void fullQueueWritesTheTurnOnTheCallersThread() {
+        ChatHistoryWriter writer = writer(false);
+
+        assertTrue(writer.enqueue(1L, "hi", "hello", "general"));
+        assertTrue(writer.enqueue(1L, "plan lunch", "done", "task"));
+        assertTrue(writer.enqueue(2L, "and dinner", "done", "task"));
+
+        // The first turn is still queued; the other two were inserted directly
+        assertEquals(2, rows());
+    }
+
+    @Test
+    void dropWhenFullIsOptIn() {
+        ChatHistoryWriter writer = writer(true);
+
+        assertTrue(writer.enqueue(1L, "hi", "hello", "general"));
+        assertFalse(writer.enqueue(1L, "plan lunch", "done", "task"));
+        assertEquals(0, rows());
+    }
+
+    private ChatHistoryWriter writer(boolean dropWhenFull) {
+        return new ChatHistoryWriter(jdbcTemplate, true, 1, 10, Duration.ofSeconds(1), Duration.ofMillis(20),
+                dropWhenFull, new SimpleMeterRegistry());
+    }
+
+    private int rows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM chatbot_conversations", Integer.class);
+    }
+}
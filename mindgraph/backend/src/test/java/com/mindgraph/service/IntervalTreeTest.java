@@ -0,0 +1,93 @@
+package com.mindgraph.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Random insert/remove sequences, with every query checked against a plain list of intervals
+class IntervalTreeTest {
+
+    @Test
+    void randomOperationsMatchBruteForce() {
+        Random random = new Random(11);
+        for (int round = 0; round < 200; round++) {
+            IntervalTree<Long> tree = new IntervalTree<>();
+            List<long[]> intervals = new ArrayList<>();
+            long nextKey = 0;
+
+            for (int step = 0; step < 400; step++) {
+                if (intervals.isEmpty() || random.nextInt(3) > 0) {
+                    // Small coordinates so that equal starts and touching ends are common
+                    long start = random.nextInt(200);
+                    long end = start + 1 + random.nextInt(30);
+                    long key = nextKey++;
+                    tree.insert(start, end, key, key);
+                    intervals.add(new long[]{start, end, key});
+                } else {
+                    long[] removed = intervals.remove(random.nextInt(intervals.size()));
+                    assertTrue(tree.remove(removed[0], removed[2]));
+                    // A second remove of the same entry finds nothing
+                    assertFalse(tree.remove(removed[0], removed[2]));
+                }
+                assertEquals(intervals.size(), tree.size());
+
+                long start = random.nextInt(240) - 20;
+                long end = start + 1 + random.nextInt(40);
+                List<Long> found = new ArrayList<>();
+                tree.findOverlapping(start, end, found);
+                List<Long> expected = overlapping(intervals, start, end);
+                assertEquals(expected, found, "findOverlapping [" + start + ", " + end + ")");
+                assertEquals(!expected.isEmpty(), tree.overlapsAny(start, end), "overlapsAny [" + start + ", " + end + ")");
+            }
+        }
+    }
+
+    @Test
+    void intervalsAreHalfOpen() {
+        IntervalTree<String> tree = new IntervalTree<>();
+        tree.insert(10, 20, 1, "a");
+
+        assertFalse(tree.overlapsAny(20, 30));
+        assertFalse(tree.overlapsAny(0, 10));
+        assertTrue(tree.overlapsAny(19, 20));
+        assertTrue(tree.overlapsAny(0, 11));
+    }
+
+    @Test
+    void removeNeedsTheMatchingStartAndKey() {
+        IntervalTree<String> tree = new IntervalTree<>();
+        tree.insert(10, 20, 1, "a");
+        tree.insert(10, 30, 2, "b");
+
+        assertFalse(tree.remove(11, 1));
+        assertFalse(tree.remove(10, 3));
+        assertTrue(tree.remove(10, 1));
+
+        List<String> found = new ArrayList<>();
+        tree.findOverlapping(0, 100, found);
+        assertEquals(List.of("b"), found);
+    }
+
+    // Keys of the intervals overlapping [start, end), in the tree's (start, key) order
+    private static List<Long> overlapping(List<long[]> intervals, long start, long end) {
+        List<long[]> matches = new ArrayList<>();
+        for (long[] interval : intervals) {
+            if (interval[0] < end && interval[1] > start) {
+                matches.add(interval);
+            }
+        }
+        matches.sort(Comparator.<long[]>comparingLong(interval -> interval[0]).thenComparingLong(interval -> interval[2]));
+        List<Long> keys = new ArrayList<>();
+        for (long[] interval : matches) {
+            keys.add(interval[2]);
+        }
+        return keys;
+    }
+}
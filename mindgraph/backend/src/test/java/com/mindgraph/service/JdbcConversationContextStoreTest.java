@@ -0,0 +1,102 @@
+package com.mindgraph.service;
+
+import com.mindgraph.dto.ConversationContextDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+// Two stores on one H2 database stand in for two backend nodes. The trust window is shortened
+// so the tests can wait past it.
+class JdbcConversationContextStoreTest {
+
+    private static final Duration TRUST_WINDOW = Duration.ofMillis(100);
+
+    private JdbcTemplate jdbcTemplate;
+    private JdbcConversationContextStore nodeA;
+    private JdbcConversationContextStore nodeB;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        nodeA = store();
+        nodeB = store();
+    }
+
+    @Test
+    void newContextSurvivesTheTrustWindowBeforeItsFirstSave() throws InterruptedException {
+        ConversationContextDTO context = nodeA.getOrCreate("session-1");
+        context.setUserId(42L);
+        context.setCurrentIntent("create_task");
+        context.addCollectedData("task.title", "Dentist");
+
+        // A Gemini call outlasts the trust window while the context is changed in place
+        Thread.sleep(TRUST_WINDOW.toMillis() * 2);
+
+        ConversationContextDTO found = nodeA.find("session-1");
+        assertSame(context, found);
+        assertEquals(42L, found.getUserId());
+        assertEquals("create_task", found.getCurrentIntent());
+
+        found.setComplete(true);
+        nodeA.save(found);
+        Thread.sleep(TRUST_WINDOW.toMillis() * 2);
+
+        ConversationContextDTO onOtherNode = nodeB.find("session-1");
+        assertNotNull(onOtherNode);
+        assertEquals(42L, onOtherNode.getUserId());
+        assertEquals("Dentist", onOtherNode.getCollectedData("task.title"));
+        assertEquals(true, onOtherNode.isComplete());
+    }
+
+    @Test
+    void getOrCreateStoresTheRowRightAway() {
+        nodeA.getOrCreate("session-2");
+
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM conversation_contexts WHERE session_id = ?", Integer.class, "session-2"));
+        assertNotNull(nodeB.find("session-2"));
+    }
+
+    @Test
+    void writeFromAnotherNodeIsSeenAfterTheTrustWindow() throws InterruptedException {
+        ConversationContextDTO context = nodeA.getOrCreate("session-3");
+        nodeA.save(context);
+
+        ConversationContextDTO other = nodeB.find("session-3");
+        other.setCurrentIntent("view_tasks");
+        nodeB.save(other);
+
+        Thread.sleep(TRUST_WINDOW.toMillis() * 2);
+        assertEquals("view_tasks", nodeA.find("session-3").getCurrentIntent());
+    }
+
+    @Test
+    void removedContextIsGone() {
+        nodeA.getOrCreate("session-4");
+        nodeA.remove("session-4");
+
+        assertNull(nodeA.find("session-4"));
+        assertNull(nodeB.find("session-4"));
+    }
+
+    private JdbcConversationContextStore store() {
+        JdbcConversationContextStore store = new JdbcConversationContextStore(jdbcTemplate, TRUST_WINDOW, 100,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(store, "codec", new ConversationContextCodec());
+        store.createTable();
+        return store;
+    }
+}
@@ -0,0 +1,137 @@
+package com.mindgraph.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Every operation is checked against a plain boolean[] of the same day
+class MinuteBitmapTest {
+
+    @Test
+    void randomRangesMatchBruteForce() {
+        Random random = new Random(3);
+        for (int round = 0; round < 20_000; round++) {
+            long[] words = MinuteBitmap.empty();
+            boolean[] busy = new boolean[MinuteBitmap.MINUTES];
+            for (int i = random.nextInt(12); i > 0; i--) {
+                // Some ranges start before the day or run past its end
+                int from = random.nextInt(MinuteBitmap.MINUTES + 60) - 30;
+                int to = from + random.nextInt(300);
+                set(words, busy, from, to);
+            }
+            assertSame(busy, words);
+
+            int from = random.nextInt(MinuteBitmap.MINUTES);
+            int length = 1 + random.nextInt(200);
+            assertEquals(findFreeRun(busy, from, length), MinuteBitmap.findFreeRun(words, from, length),
+                    "findFreeRun from " + from + " for " + length);
+            assertEquals(nextBusy(busy, from), MinuteBitmap.nextBusy(words, from), "nextBusy from " + from);
+            assertEquals(nextFree(busy, from), MinuteBitmap.nextFree(words, from), "nextFree from " + from);
+        }
+    }
+
+    @Test
+    void rangesEndingAndStartingOnWordBoundaries() {
+        for (int boundary = 64; boundary < MinuteBitmap.MINUTES; boundary += 64) {
+            for (int from : new int[]{boundary - 64, boundary - 1, boundary - 3}) {
+                long[] words = MinuteBitmap.empty();
+                boolean[] busy = new boolean[MinuteBitmap.MINUTES];
+                set(words, busy, from, boundary);
+                assertSame(busy, words);
+                assertEquals(boundary, MinuteBitmap.nextFree(words, from));
+            }
+            long[] words = MinuteBitmap.empty();
+            boolean[] busy = new boolean[MinuteBitmap.MINUTES];
+            set(words, busy, boundary, boundary + 64);
+            assertSame(busy, words);
+            assertEquals(boundary, MinuteBitmap.nextBusy(words, 0));
+        }
+    }
+
+    @Test
+    void tailBitsEndEveryRunAtMidnight() {
+        long[] words = MinuteBitmap.empty();
+        assertEquals(0, MinuteBitmap.findFreeRun(words, 0, MinuteBitmap.MINUTES));
+        assertEquals(-1, MinuteBitmap.findFreeRun(words, 1, MinuteBitmap.MINUTES));
+        assertEquals(MinuteBitmap.MINUTES - 1, MinuteBitmap.findFreeRun(words, MinuteBitmap.MINUTES - 1, 1));
+        assertEquals(MinuteBitmap.MINUTES, MinuteBitmap.nextBusy(words, 0));
+        assertEquals(MinuteBitmap.MINUTES, MinuteBitmap.nextBusy(words, MinuteBitmap.MINUTES - 1));
+
+        // Filling the whole day leaves nothing free, and the tail stays set
+        MinuteBitmap.setRange(words, 0, MinuteBitmap.MINUTES);
+        assertEquals(-1, MinuteBitmap.nextFree(words, 0));
+        assertEquals(-1, MinuteBitmap.findFreeRun(words, 0, 1));
+        assertEquals(-1L, words[MinuteBitmap.WORDS - 1]);
+
+        // A range past the end of the day is clipped and leaves the tail as it was
+        long[] clipped = MinuteBitmap.empty();
+        long tail = clipped[MinuteBitmap.WORDS - 1];
+        MinuteBitmap.setRange(clipped, MinuteBitmap.MINUTES, MinuteBitmap.MINUTES + 100);
+        assertEquals(tail, clipped[MinuteBitmap.WORDS - 1]);
+        assertTrue(tail != 0);
+    }
+
+    @Test
+    void orCombinesBusyMinutes() {
+        long[] a = MinuteBitmap.empty();
+        long[] b = MinuteBitmap.empty();
+        MinuteBitmap.setRange(a, 540, 600);
+        MinuteBitmap.setRange(b, 630, 700);
+        MinuteBitmap.or(a, b);
+
+        assertEquals(600, MinuteBitmap.findFreeRun(a, 540, 30));
+        assertEquals(700, MinuteBitmap.findFreeRun(a, 540, 31));
+    }
+
+    private static void set(long[] words, boolean[] busy, int from, int to) {
+        MinuteBitmap.setRange(words, from, to);
+        for (int minute = Math.max(0, from); minute < Math.min(MinuteBitmap.MINUTES, to); minute++) {
+            busy[minute] = true;
+        }
+    }
+
+    private static void assertSame(boolean[] busy, long[] words) {
+        for (int minute = 0; minute < MinuteBitmap.MINUTES; minute++) {
+            assertEquals(busy[minute], ((words[minute >>> 6] >>> minute) & 1) == 1, "minute " + minute);
+        }
+    }
+
+    private static int findFreeRun(boolean[] busy, int from, int length) {
+        int start = from;
+        while (start < busy.length) {
+            if (busy[start]) {
+                start++;
+                continue;
+            }
+            int end = start;
+            while (end < busy.length && !busy[end]) {
+                end++;
+            }
+            if (end - start >= length) {
+                return start;
+            }
+            start = end;
+        }
+        return -1;
+    }
+
+    private static int nextBusy(boolean[] busy, int from) {
+        int minute = from;
+        while (minute < busy.length && !busy[minute]) {
+            minute++;
+        }
+        return minute;
+    }
+
+    private static int nextFree(boolean[] busy, int from) {
+        for (int minute = from; minute < busy.length; minute++) {
+            if (!busy[minute]) {
+                return minute;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,68 @@
+package com.mindgraph.service;
+
+import com.mindgraph.dto.TaskExtractionDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class NaturalDateTimeParserTest {
+
+    // A Wednesday afternoon
+    private static final ZonedDateTime NOW = ZonedDateTime.of(2025, 9, 17, 14, 0, 0, 0, ZoneId.of("UTC"));
+
+    private final NaturalDateTimeParser parser = new NaturalDateTimeParser();
+
+    @Test
+    void tonightWithDuration() {
+        TaskExtractionDTO result = parser.parse("tonight dinner with parents for 2 hours", NOW);
+
+        assertEquals("Dinner with parents", result.getTitle());
+        assertEquals(LocalDateTime.of(2025, 9, 17, 20, 0), result.getStartTime());
+        assertEquals(120, result.getDurationMinutes());
+    }
+
+    @Test
+    void tonightWithBareHourAndDuration() {
+        TaskExtractionDTO result = parser.parse("tonight at 8 finish homework for an hour", NOW);
+
+        assertEquals("Finish homework", result.getTitle());
+        assertEquals(LocalDateTime.of(2025, 9, 17, 20, 0), result.getStartTime());
+        assertEquals(60, result.getDurationMinutes());
+    }
+
+    @Test
+    void tonightWithClockTime() {
+        TaskExtractionDTO result = parser.parse("tonight call mom at 8pm", NOW);
+
+        assertEquals("Call mom", result.getTitle());
+        assertEquals(LocalDateTime.of(2025, 9, 17, 20, 0), result.getStartTime());
+    }
+
+    @Test
+    void tomorrowEveningKeepsTheWholeTitle() {
+        TaskExtractionDTO result = parser.parse("tomorrow evening dinner with Sam", NOW);
+
+        assertEquals("Dinner with Sam", result.getTitle());
+        assertEquals(LocalDateTime.of(2025, 9, 18, 18, 0), result.getStartTime());
+    }
+
+    @Test
+    void interjectionIsNotAnHour() {
+        TaskExtractionDTO result = parser.parse("ah right, gym tomorrow at 7am", NOW);
+
+        assertNull(result.getDurationMinutes());
+        assertEquals(LocalDateTime.of(2025, 9, 18, 7, 0), result.getStartTime());
+    }
+
+    @Test
+    void spelledOutDurations() {
+        assertEquals(60, parser.parse("read tomorrow at 9am for an hour", NOW).getDurationMinutes());
+        assertEquals(30, parser.parse("read tomorrow at 9am for half an hour", NOW).getDurationMinutes());
+        assertEquals(90, parser.parse("read tomorrow at 9am for 1.5h", NOW).getDurationMinutes());
+    }
+}
@@ -0,0 +1,174 @@
+package com.mindgraph.service;
+
+import com.mindgraph.dto.ScheduleConflictDTO;
+import com.mindgraph.entity.Event;
+import com.mindgraph.entity.RecurrencePattern;
+import com.mindgraph.entity.Task;
+import com.mindgraph.entity.TaskStatus;
+import com.mindgraph.entity.User;
+import com.mindgraph.repository.EventRepository;
+import com.mindgraph.repository.TaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// onScheduleChanged removes an item's old interval before inserting its new one, so these check
+// the loaded tree after moves, edits in place, removals and conversions to a recurring series
+class ScheduleConflictServiceTest {
+
+    private static final Long USER_ID = 1L;
+    private static final LocalDateTime DAY = LocalDateTime.of(2025, 9, 1, 0, 0);
+
+    private final List<ScheduleConflictDTO> events = new ArrayList<>();
+    private final List<ScheduleConflictDTO> tasks = new ArrayList<>();
+    private EventRepository eventRepository;
+    private TaskRepository taskRepository;
+    private ScheduleConflictService service;
+
+    @BeforeEach
+    void setUp() {
+        eventRepository = mock(EventRepository.class);
+        taskRepository = mock(TaskRepository.class);
+        RecurrenceExpander recurrenceExpander = mock(RecurrenceExpander.class);
+        when(eventRepository.findScheduleItems(anyLong())).thenReturn(events);
+        when(taskRepository.findScheduleItems(anyLong(), any())).thenReturn(tasks);
+
+        service = new ScheduleConflictService(Duration.ofMinutes(30), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "eventRepository", eventRepository);
+        ReflectionTestUtils.setField(service, "taskRepository", taskRepository);
+        ReflectionTestUtils.setField(service, "recurrenceExpander", recurrenceExpander);
+    }
+
+    @Test
+    void movedTaskLeavesItsOldSlot() {
+        tasks.add(item(ScheduleChangedEvent.TASK, 5L, 9, 10));
+        service.prefetch(USER_ID);
+
+        service.onScheduleChanged(ScheduleChangedEvent.of(task(5L, 14, 15)));
+
+        assertTrue(conflicts(9, 10).isEmpty());
+        assertEquals(List.of(5L), ids(conflicts(14, 15)));
+        assertEquals(1, conflicts(0, 24).size());
+    }
+
+    @Test
+    void editInPlaceKeepsOneEntry() {
+        tasks.add(item(ScheduleChangedEvent.TASK, 5L, 9, 10));
+        service.prefetch(USER_ID);
+
+        // Same start and key as the entry it replaces
+        Task renamed = task(5L, 9, 11);
+        renamed.setTitle("Renamed");
+        service.onScheduleChanged(ScheduleChangedEvent.of(renamed));
+
+        List<ScheduleConflictDTO> all = conflicts(0, 24);
+        assertEquals(1, all.size());
+        assertEquals("Renamed", all.get(0).getTitle());
+        assertEquals(DAY.withHour(11), all.get(0).getEndTime());
+    }
+
+    @Test
+    void removalOnlyDropsTheItemOfThatType() {
+        // Events and tasks may share an id
+        events.add(item(ScheduleChangedEvent.EVENT, 5L, 9, 10));
+        tasks.add(item(ScheduleChangedEvent.TASK, 5L, 9, 10));
+        service.prefetch(USER_ID);
+
+        service.onScheduleChanged(ScheduleChangedEvent.removed(USER_ID, ScheduleChangedEvent.TASK, 5L));
+
+        List<ScheduleConflictDTO> left = conflicts(0, 24);
+        assertEquals(1, left.size());
+        assertEquals(ScheduleChangedEvent.EVENT, left.get(0).getType());
+    }
+
+    @Test
+    void eventTurnedRecurringLeavesTheTree() {
+        events.add(item(ScheduleChangedEvent.EVENT, 7L, 9, 10));
+        service.prefetch(USER_ID);
+
+        Event event = new Event();
+        event.setId(7L);
+        event.setUser(user());
+        event.setTitle("Standup");
+        event.setStartTime(DAY.withHour(9));
+        event.setEndTime(DAY.withHour(10));
+        event.setIsRecurring(true);
+        event.setRecurrencePattern(RecurrencePattern.DAILY);
+        service.onScheduleChanged(ScheduleChangedEvent.of(event));
+
+        // The mocked expander has no series, so nothing is left
+        assertTrue(conflicts(0, 24).isEmpty());
+    }
+
+    @Test
+    void changesAppliedInSequenceEndWithTheLastState() {
+        service.prefetch(USER_ID);
+        for (int hour = 8; hour < 18; hour++) {
+            service.onScheduleChanged(ScheduleChangedEvent.of(task(3L, hour, hour + 1)));
+        }
+
+        assertEquals(List.of(3L), ids(conflicts(0, 24)));
+        assertEquals(List.of(3L), ids(conflicts(17, 18)));
+        assertTrue(conflicts(8, 17).isEmpty());
+    }
+
+    @Test
+    void changeForAnUnloadedUserIsLeftToTheNextLoad() {
+        service.onScheduleChanged(ScheduleChangedEvent.of(task(5L, 14, 15)));
+        verify(taskRepository, never()).findScheduleItems(anyLong(), any());
+
+        // The committed state the next load reads already has the change
+        tasks.add(item(ScheduleChangedEvent.TASK, 5L, 14, 15));
+        assertEquals(List.of(5L), ids(conflicts(0, 24)));
+        verify(taskRepository, times(1)).findScheduleItems(anyLong(), any());
+    }
+
+    private List<ScheduleConflictDTO> conflicts(int fromHour, int toHour) {
+        return service.findConflicts(USER_ID, DAY.plusHours(fromHour), DAY.plusHours(toHour), null, null);
+    }
+
+    private static List<Long> ids(List<ScheduleConflictDTO> items) {
+        List<Long> ids = new ArrayList<>();
+        for (ScheduleConflictDTO item : items) {
+            ids.add(item.getId());
+        }
+        return ids;
+    }
+
+    private static ScheduleConflictDTO item(String type, Long id, int fromHour, int toHour) {
+        return new ScheduleConflictDTO(type, id, type + " " + id, DAY.withHour(fromHour), DAY.withHour(toHour));
+    }
+
+    private static Task task(Long id, int fromHour, int toHour) {
+        Task task = new Task();
+        task.setId(id);
+        task.setUser(user());
+        task.setTitle("Task " + id);
+        task.setStatus(TaskStatus.PENDING);
+        task.setScheduledStartTime(DAY.withHour(fromHour));
+        task.setScheduledEndTime(DAY.withHour(toHour));
+        return task;
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setId(USER_ID);
+        return user;
+    }
+}
@@ -0,0 +1,156 @@
+package com.mindgraph.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeout;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class ScheduleSearchTest {
+
+    private static final int CELLS_PER_DAY = 24 * 60 / ScheduleSearch.QUANTUM_MINUTES;
+    private static final int DAYS = 7;
+    private static final int BUFFER = 3;
+    private static final int WORKERS = 4;
+
+    private final ForkJoinPool pool = new ForkJoinPool(WORKERS);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void weekOfThreeHundredTasksIsScheduledWithinASecond() {
+        Week week = new Week(new Random(1), 300);
+
+        ScheduleSearch.Solution best = assertTimeout(Duration.ofSeconds(1), () -> {
+            ScheduleSearch.Solution seed = week.search.greedy();
+            return week.search.improve(seed, pool, WORKERS, System.nanoTime() + 300_000_000L);
+        });
+
+        assertValid(week, best);
+        assertTrue(placed(best) > 0);
+    }
+
+    @Test
+    void greedyAndSearchedSchedulesRespectTheConstraints() {
+        Random random = new Random(7);
+        for (int round = 0; round < 5; round++) {
+            Week week = new Week(random, 50 + random.nextInt(250));
+
+            ScheduleSearch.Solution seed = week.search.greedy();
+            assertValid(week, seed);
+            ScheduleSearch.Solution best = week.search.improve(seed, pool, WORKERS, System.nanoTime() + 50_000_000L);
+            assertValid(week, best);
+            assertTrue(best.score >= seed.score, "search returned a worse schedule than its seed");
+        }
+    }
+
+    @Test
+    void bufferDecidesWhetherTwoTasksShareAWindow() {
+        // Two 4-cell tasks and a 2-cell buffer need exactly 10 free cells
+        assertEquals(2, placed(oneWindow(10).greedy()));
+        assertEquals(1, placed(oneWindow(9).greedy()));
+    }
+
+    @Test
+    void taskLongerThanAnyFreeRunIsLeftOut() {
+        int[] grid = new int[2 * CELLS_PER_DAY];
+        Arrays.fill(grid, ScheduleSearch.OFF);
+        // Free across midnight: 6 cells at the end of day 0 and 6 at the start of day 1
+        Arrays.fill(grid, CELLS_PER_DAY - 6, CELLS_PER_DAY + 6, ScheduleSearch.FREE);
+        ScheduleSearch search = new ScheduleSearch(CELLS_PER_DAY, grid, new int[grid.length], 0, 0, 100,
+                new int[]{8}, new int[]{1}, new int[]{3}, new int[]{ScheduleSearch.NO_DEADLINE});
+
+        assertEquals(-1, search.greedy().start[0]);
+    }
+
+    private ScheduleSearch oneWindow(int freeCells) {
+        int[] grid = new int[CELLS_PER_DAY];
+        Arrays.fill(grid, ScheduleSearch.OFF);
+        Arrays.fill(grid, 100, 100 + freeCells, ScheduleSearch.FREE);
+        return new ScheduleSearch(CELLS_PER_DAY, grid, new int[grid.length], 2, 2, 100,
+                new int[]{4, 4}, new int[]{1, 1}, new int[]{3, 3},
+                new int[]{ScheduleSearch.NO_DEADLINE, ScheduleSearch.NO_DEADLINE});
+    }
+
+    // No task on a cell that is not FREE in the base grid, none crossing midnight, and no other
+    // task or busy cell within BUFFER cells of a task
+    private static void assertValid(Week week, ScheduleSearch.Solution solution) {
+        int[] grid = week.grid.clone();
+        for (int task = 0; task < week.length.length; task++) {
+            int start = solution.start[task];
+            if (start < 0) {
+                continue;
+            }
+            int end = start + week.length[task];
+            if (start / CELLS_PER_DAY != (end - 1) / CELLS_PER_DAY) {
+                fail("task " + task + " crosses midnight");
+            }
+            for (int cell = start; cell < end; cell++) {
+                if (grid[cell] != ScheduleSearch.FREE) {
+                    fail("task " + task + " overlaps cell " + cell + " (" + grid[cell] + ")");
+                }
+                grid[cell] = task;
+            }
+        }
+        for (int task = 0; task < week.length.length; task++) {
+            int start = solution.start[task];
+            if (start < 0) {
+                continue;
+            }
+            int end = start + week.length[task];
+            for (int cell = Math.max(0, start - BUFFER); cell < Math.min(grid.length, end + BUFFER); cell++) {
+                boolean inside = cell >= start && cell < end;
+                if (!inside && (grid[cell] >= 0 || grid[cell] == ScheduleSearch.BUSY)) {
+                    fail("task " + task + " has no buffer at cell " + cell);
+                }
+            }
+        }
+    }
+
+    private static int placed(ScheduleSearch.Solution solution) {
+        return (int) Arrays.stream(solution.start).filter(start -> start >= 0).count();
+    }
+
+    // A week of 09:00-17:00 work days with random busy blocks and random tasks
+    private static final class Week {
+        private final int[] grid = new int[CELLS_PER_DAY * DAYS];
+        private final int[] length;
+        private final ScheduleSearch search;
+
+        Week(Random random, int tasks) {
+            int[] energy = new int[grid.length];
+            for (int cell = 0; cell < grid.length; cell++) {
+                int minute = (cell % CELLS_PER_DAY) * ScheduleSearch.QUANTUM_MINUTES;
+                grid[cell] = minute >= 9 * 60 && minute < 17 * 60 ? ScheduleSearch.FREE : ScheduleSearch.OFF;
+                energy[cell] = minute < 12 * 60 ? 4 : minute < 17 * 60 ? 2 : 1;
+            }
+            for (int block = 0; block < 40; block++) {
+                int start = random.nextInt(grid.length - 24);
+                Arrays.fill(grid, start, start + 6 + random.nextInt(18), ScheduleSearch.BUSY);
+            }
+
+            length = new int[tasks];
+            int[] weight = new int[tasks];
+            int[] difficulty = new int[tasks];
+            int[] deadline = new int[tasks];
+            for (int task = 0; task < tasks; task++) {
+                length[task] = 3 + random.nextInt(10);
+                weight[task] = 1 << random.nextInt(4);
+                difficulty[task] = 1 + random.nextInt(5);
+                deadline[task] = random.nextInt(3) == 0 ? random.nextInt(grid.length) : ScheduleSearch.NO_DEADLINE;
+            }
+            search = new ScheduleSearch(CELLS_PER_DAY, grid, energy, BUFFER, BUFFER, 24,
+                    length, weight, difficulty, deadline);
+        }
+    }
+}
@@ -65,6 +65,11 @@ CREATE TABLE tasks (
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
+-- Full-text search column, maintained by Postgres (weights: title A, description B)
+ALTER TABLE tasks ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(description, '')), 'B')) STORED;
+
 -- Task resources table (for storing URLs, links, etc.)
 CREATE TABLE task_resources (
     task_id BIGINT NOT NULL REFERENCES tasks(id) ON DELETE CASCADE,
@@ -97,6 +102,12 @@ CREATE TABLE events (
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
+-- Full-text search column (weights: title A, location B, description C)
+ALTER TABLE events ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(location, '')), 'B') ||
+    setweight(to_tsvector('simple', coalesce(description, '')), 'C')) STORED;
+
 -- Chatbot conversations table (for storing conversation history)
 CREATE TABLE chatbot_conversations (
     id BIGSERIAL PRIMARY KEY,
@@ -107,6 +118,16 @@ CREATE TABLE chatbot_conversations (
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
+-- Conversation contexts shared between backend nodes (chatbot.context.store=jdbc)
+CREATE TABLE conversation_contexts (
+    session_id VARCHAR(255) PRIMARY KEY,
+    user_id BIGINT,
+    data BYTEA NOT NULL, -- ConversationContextCodec encoding
+    version BIGINT NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
 -- AI learning data table (for storing user behavior patterns)
 CREATE TABLE ai_learning_data (
     id BIGSERIAL PRIMARY KEY,
@@ -129,14 +150,21 @@ CREATE INDEX idx_tasks_status ON tasks(status);
 CREATE INDEX idx_tasks_deadline ON tasks(deadline);
 CREATE INDEX idx_tasks_scheduled_start ON tasks(scheduled_start_time);
 CREATE INDEX idx_tasks_parent_task ON tasks(parent_task_id);
+CREATE INDEX idx_tasks_user_created_id ON tasks(user_id, created_at, id);
+CREATE INDEX idx_tasks_search_vector ON tasks USING GIN (search_vector);
 
 CREATE INDEX idx_events_user_id ON events(user_id);
 CREATE INDEX idx_events_start_time ON events(start_time);
 CREATE INDEX idx_events_end_time ON events(end_time);
 CREATE INDEX idx_events_type ON events(type);
+CREATE INDEX idx_events_user_start_end ON events(user_id, start_time, end_time);
+CREATE INDEX idx_events_search_vector ON events USING GIN (search_vector);
 
 CREATE INDEX idx_user_preferences_user_id ON user_preferences(user_id);
 CREATE INDEX idx_chatbot_conversations_user_id ON chatbot_conversations(user_id);
+CREATE INDEX idx_conversation_contexts_expires_at ON conversation_contexts(expires_at);
+-- Keyset pagination of a user's chat history (WHERE user_id = ? AND id < ? ORDER BY id DESC)
+CREATE INDEX idx_chatbot_conversations_user_id_id ON chatbot_conversations(user_id, id);
 CREATE INDEX idx_ai_learning_data_user_id ON ai_learning_data(user_id);
 
 -- Add updated_at trigger function
@@ -91,7 +91,22 @@ export const scheduleService = {
 export const chatbotService = {
   sendMessage: (message, sessionId = null) => api.post('/chatbot/message', { 
     message, 
-    sessionId 
+    sessionId,
+    timeZone: Intl.DateTimeFormat().resolvedOptions().timeZone
+  }),
+  // Server-Sent Events stream of reply fragments; axios cannot read streamed bodies in the browser
+  streamMessage: (message, sessionId = null) => fetch(`${API_BASE_URL}/chatbot/stream`, {
+    method: 'POST',
+    headers: {
+      'Content-Type': 'application/json',
+      Accept: 'text/event-stream',
+      Authorization: `Bearer ${localStorage.getItem('token')}`,
+    },
+    body: JSON.stringify({
+      message,
+      sessionId,
+      timeZone: Intl.DateTimeFormat().resolvedOptions().timeZone,
+    }),
   }),
   healthCheck: () => api.get('/chatbot/health'),
 };